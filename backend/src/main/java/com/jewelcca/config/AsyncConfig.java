@@ -0,0 +1,57 @@
+package com.jewelcca.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    // Declaring our own executors makes Boot back off from its default one, which MVC async
+    // requests still rely on, so it is re-declared here from Boot's builder
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor webhookExecutor() {
+        return boundedExecutor("webhook-", 4, 1000);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor reconciliationExecutor(@Value("${payment.reconciliation.parallelism}") int parallelism) {
+        return boundedExecutor("reconciliation-", parallelism, 1000);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor analyticsExecutor() {
+        return boundedExecutor("analytics-", 2, 100);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor(@Value("${admin.dashboard.parallelism}") int parallelism) {
+        return boundedExecutor("dashboard-", parallelism, 200);
+    }
+
+    // Drains admin event streams; each connection has at most one drain task queued
+    @Bean
+    public ThreadPoolTaskExecutor sseExecutor() {
+        return boundedExecutor("sse-", 4, 1000);
+    }
+
+    private static ThreadPoolTaskExecutor boundedExecutor(String threadNamePrefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -1,17 +1,40 @@
 package com.jewelcca.controller;
 
+import com.jewelcca.dto.OrderFeedResponse;
+import com.jewelcca.entity.CustomerRfm;
 import com.jewelcca.entity.Order;
 import com.jewelcca.entity.Product;
 import com.jewelcca.entity.User;
+import com.jewelcca.service.AdminEventBroadcaster;
 import com.jewelcca.service.AdminService;
+import com.jewelcca.service.AnalyticsCache;
+import com.jewelcca.service.CustomerAnalyticsService;
+import com.jewelcca.service.ExportService;
+import com.jewelcca.service.TrackingImportService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,26 +44,39 @@ import java.util.Map;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
+    public static final String COMPUTED_AT_HEADER = "X-Computed-At";
+
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private TrackingImportService trackingImportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CustomerAnalyticsService customerAnalyticsService;
+
+    @Autowired
+    private AdminEventBroadcaster adminEventBroadcaster;
+
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = adminService.getDashboardStats();
-        return ResponseEntity.ok(stats);
+        return withComputedAt(adminService.getDashboardStats());
     }
 
     @GetMapping("/dashboard/sales-chart")
     public ResponseEntity<List<Map<String, Object>>> getSalesChart(
             @RequestParam(defaultValue = "30") int days) {
-        List<Map<String, Object>> salesData = adminService.getSalesChartData(days);
-        return ResponseEntity.ok(salesData);
+        return withComputedAt(adminService.getSalesChartData(days));
     }
 
     @GetMapping("/dashboard/category-sales")
-    public ResponseEntity<List<Map<String, Object>>> getCategorySales() {
-        List<Map<String, Object>> categoryData = adminService.getCategorySalesData();
-        return ResponseEntity.ok(categoryData);
+    public ResponseEntity<List<Map<String, Object>>> getCategorySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return withComputedAt(adminService.getCategorySalesData(startDate, endDate));
     }
 
     @GetMapping("/dashboard/recent-orders")
@@ -50,16 +86,27 @@ public class AdminController {
     }
 
     @GetMapping("/dashboard/top-products")
-    public ResponseEntity<List<Map<String, Object>>> getTopProducts() {
-        List<Map<String, Object>> topProducts = adminService.getTopSellingProducts();
-        return ResponseEntity.ok(topProducts);
+    public ResponseEntity<List<Map<String, Object>>> getTopProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return withComputedAt(adminService.getTopSellingProducts(startDate, endDate));
     }
 
     @GetMapping("/dashboard/revenue-chart")
     public ResponseEntity<List<Map<String, Object>>> getRevenueChart(
             @RequestParam(defaultValue = "12") int months) {
-        List<Map<String, Object>> revenueData = adminService.getRevenueChartData(months);
-        return ResponseEntity.ok(revenueData);
+        return withComputedAt(adminService.getRevenueChartData(months));
+    }
+
+    // Live order and stock activity; replaces polling recent orders and low stock
+    @GetMapping(value = "/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return adminEventBroadcaster.subscribe();
+    }
+
+    @PostMapping("/analytics/sales-rollup/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildSalesRollup() {
+        return ResponseEntity.ok(Map.of("daysWritten", adminService.rebuildSalesRollup()));
     }
 
     // User Management
@@ -70,10 +117,10 @@ public class AdminController {
     }
 
     @GetMapping("/users/search")
-    public ResponseEntity<Page<User>> searchUsers(
+    public ResponseEntity<Slice<User>> searchUsers(
             @RequestParam String keyword, 
             Pageable pageable) {
-        Page<User> users = adminService.searchUsers(keyword, pageable);
+        Slice<User> users = adminService.searchUsers(keyword, pageable);
         return ResponseEntity.ok(users);
     }
 
@@ -112,15 +159,42 @@ public class AdminController {
 
     @GetMapping("/orders/filter")
     public ResponseEntity<Page<Order>> filterOrders(
-            @RequestParam(required = false) String status,
-            @RequestParam(required = false) String paymentMethod,
-            @RequestParam(required = false) LocalDateTime startDate,
-            @RequestParam(required = false) LocalDateTime endDate,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) Order.PaymentMethod paymentMethod,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             Pageable pageable) {
         Page<Order> orders = adminService.filterOrders(status, paymentMethod, startDate, endDate, pageable);
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/orders/filter/feed")
+    public ResponseEntity<OrderFeedResponse> filterOrdersFeed(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) Order.PaymentMethod paymentMethod,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeDate,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.filterOrdersFeed(status, paymentMethod, startDate, endDate,
+                beforeDate, beforeId, Math.min(Math.max(size, 1), 200)));
+    }
+
+    @PostMapping(value = "/orders/tracking-import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public void importTrackingNumbers(
+            @RequestParam("file") MultipartFile file,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        User user = (User) authentication.getPrincipal();
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tracking-import-report.csv\"");
+        try (InputStream input = file.getInputStream()) {
+            trackingImportService.importTrackingNumbers(input, response.getWriter(), user.getEmail());
+        }
+    }
+
     // Product Management
     @GetMapping("/products")
     public ResponseEntity<Page<Product>> getAllProducts(Pageable pageable) {
@@ -129,8 +203,8 @@ public class AdminController {
     }
 
     @GetMapping("/products/low-stock")
-    public ResponseEntity<List<Product>> getLowStockProducts() {
-        List<Product> products = adminService.getLowStockProducts();
+    public ResponseEntity<Page<Product>> getLowStockProducts(Pageable pageable) {
+        Page<Product> products = adminService.getLowStockProducts(pageable);
         return ResponseEntity.ok(products);
     }
 
@@ -143,17 +217,60 @@ public class AdminController {
         return ResponseEntity.ok(product);
     }
 
+    // Exports, streamed as they are read
+    @GetMapping("/export/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        ExportService.ExportFormat exportFormat = ExportService.ExportFormat.from(format);
+        return export("orders", exportFormat, out -> exportService.exportOrders(out, exportFormat, startDate, endDate));
+    }
+
+    @GetMapping("/export/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "csv") String format) {
+        ExportService.ExportFormat exportFormat = ExportService.ExportFormat.from(format);
+        return export("users", exportFormat, out -> exportService.exportUsers(out, exportFormat));
+    }
+
+    @GetMapping("/export/products")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "csv") String format) {
+        ExportService.ExportFormat exportFormat = ExportService.ExportFormat.from(format);
+        return export("products", exportFormat, out -> exportService.exportProducts(out, exportFormat));
+    }
+
     // Analytics
     @GetMapping("/analytics/customer-insights")
     public ResponseEntity<Map<String, Object>> getCustomerInsights() {
-        Map<String, Object> insights = adminService.getCustomerInsights();
-        return ResponseEntity.ok(insights);
+        return withComputedAt(adminService.getCustomerInsights());
+    }
+
+    @GetMapping("/analytics/customers/segments")
+    public ResponseEntity<Map<String, Object>> getCustomerSegments() {
+        return ResponseEntity.ok(customerAnalyticsService.getSegmentSummary());
+    }
+
+    @GetMapping("/analytics/customers/rfm")
+    public ResponseEntity<Page<CustomerRfm>> getCustomerRfm(
+            @RequestParam(required = false) CustomerRfm.Segment segment,
+            @PageableDefault(size = 50, sort = "monetary", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(customerAnalyticsService.getCustomers(segment, pageable));
+    }
+
+    @GetMapping("/analytics/customers/cohorts")
+    public ResponseEntity<Map<String, Object>> getCustomerCohorts() {
+        return ResponseEntity.ok(customerAnalyticsService.getCohorts());
+    }
+
+    @PostMapping("/analytics/customers/refresh")
+    public ResponseEntity<Map<String, String>> refreshCustomerAnalytics() {
+        customerAnalyticsService.refreshInBackground();
+        return ResponseEntity.accepted().body(Map.of("status", "started"));
     }
 
     @GetMapping("/analytics/inventory-report")
     public ResponseEntity<Map<String, Object>> getInventoryReport() {
-        Map<String, Object> report = adminService.getInventoryReport();
-        return ResponseEntity.ok(report);
+        return withComputedAt(adminService.getInventoryReport());
     }
 
     @GetMapping("/analytics/financial-summary")
@@ -163,4 +280,28 @@ public class AdminController {
         Map<String, Object> summary = adminService.getFinancialSummary(startDate, endDate);
         return ResponseEntity.ok(summary);
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<StreamingResponseBody> export(String name, ExportService.ExportFormat format,
+                                                                StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "-" + LocalDate.now() + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    // Cached analytics report when they were computed; map bodies also carry it as "computedAt"
+    private static <T> ResponseEntity<T> withComputedAt(AnalyticsCache.Result<T> result) {
+        T body = result.getValue();
+        if (body instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new HashMap<>(map);
+            copy.put("computedAt", result.getComputedAt().toString());
+            @SuppressWarnings("unchecked")
+            T withTimestamp = (T) copy;
+            body = withTimestamp;
+        }
+        return ResponseEntity.ok()
+                .header(COMPUTED_AT_HEADER, result.getComputedAt().toString())
+                .body(body);
+    }
+}
@@ -1,12 +1,20 @@
 package com.jewelcca.controller;
 
+import com.jewelcca.dto.CalendarFeed;
+import com.jewelcca.dto.EventFeedResponse;
 import com.jewelcca.entity.Event;
 import com.jewelcca.service.EventService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/events")
@@ -20,6 +28,35 @@ public class EventController {
         return eventService.getAllEvents();
     }
 
+    @GetMapping("/upcoming")
+    public ResponseEntity<EventFeedResponse> getUpcomingEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(eventService.getUpcomingEvents(afterDate, afterId, Math.min(Math.max(size, 1), 100)));
+    }
+
+    @GetMapping("/past")
+    public ResponseEntity<EventFeedResponse> getPastEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeDate,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(eventService.getPastEvents(beforeDate, beforeId, Math.min(Math.max(size, 1), 100)));
+    }
+
+    @GetMapping(value = "/calendar.ics", produces = "text/calendar")
+    public ResponseEntity<byte[]> getCalendarFeed(WebRequest request) {
+        CalendarFeed feed = eventService.getCalendarFeed();
+        if (request.checkNotModified(feed.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/calendar; charset=UTF-8"))
+                .cacheControl(CacheControl.maxAge(15, TimeUnit.MINUTES).cachePublic())
+                .eTag(feed.getEtag())
+                .body(feed.getBody());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Event> getEventById(@PathVariable Long id) {
         return eventService.getEventById(id)
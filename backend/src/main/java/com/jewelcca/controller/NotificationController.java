@@ -0,0 +1,47 @@
+package com.jewelcca.controller;
+
+import com.jewelcca.entity.Notification;
+import com.jewelcca.entity.User;
+import com.jewelcca.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+@CrossOrigin(origins = "*")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @GetMapping
+    public ResponseEntity<Page<Notification>> getNotifications(Authentication authentication, Pageable pageable) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(notificationService.getNotifications(user.getId(), pageable));
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(Map.of("unread", notificationService.getUnreadCount(user.getId())));
+    }
+
+    @PutMapping("/{id}/read")
+    public ResponseEntity<?> markRead(@PathVariable Long id, Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        notificationService.markRead(id, user.getId());
+        return ResponseEntity.ok().build();
+    }
+
+    @PutMapping("/read-all")
+    public ResponseEntity<Map<String, Integer>> markAllRead(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(Map.of("updated", notificationService.markAllRead(user.getId())));
+    }
+}
@@ -1,13 +1,17 @@
 package com.jewelcca.controller;
 
+import com.jewelcca.dto.OfferQuote;
 import com.jewelcca.entity.Offer;
+import com.jewelcca.entity.User;
 import com.jewelcca.service.OfferService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/offers")
@@ -35,6 +39,21 @@ public class OfferController {
         return ResponseEntity.ok(offer);
     }
 
+    @GetMapping("/{id}/redemptions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getRedemptionStats(@PathVariable Long id) {
+        return ResponseEntity.ok(offerService.getRedemptionStats(id));
+    }
+
+    @PostMapping("/apply")
+    public ResponseEntity<OfferQuote> applyOffer(
+            @RequestBody(required = false) Map<String, String> request,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        String code = request != null ? request.get("code") : null;
+        return ResponseEntity.ok(offerService.applyToCart(user.getId(), code));
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Offer> createOffer(@RequestBody Offer offer) {
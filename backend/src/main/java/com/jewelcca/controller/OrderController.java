@@ -1,7 +1,9 @@
 package com.jewelcca.controller;
 
+import com.jewelcca.dto.BulkOrderStatusRequest;
 import com.jewelcca.dto.OrderRequest;
 import com.jewelcca.entity.Order;
+import com.jewelcca.entity.OrderStatusHistory;
 import com.jewelcca.entity.User;
 import com.jewelcca.service.OrderService;
 import jakarta.validation.Valid;
@@ -71,16 +73,44 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<OrderStatusHistory>> getOrderStatusHistory(
+            @PathVariable Long id,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        Order order = orderService.getOrderById(id);
+
+        // Check if user owns this order or is admin
+        if (!order.getUser().getId().equals(user.getId()) && !user.getRole().equals(User.Role.ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok(orderService.getOrderStatusHistory(id));
+    }
+
     @PutMapping("/{id}/status")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Order> updateOrderStatus(
             @PathVariable Long id,
-            @RequestBody Map<String, String> request) {
-        String status = request.get("status");
-        Order order = orderService.updateOrderStatus(id, Order.OrderStatus.valueOf(status));
+            @RequestBody Map<String, Object> request,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        String status = request.get("status").toString();
+        Long expectedVersion = request.get("version") != null ? Long.valueOf(request.get("version").toString()) : null;
+        Order order = orderService.updateOrderStatus(id, Order.OrderStatus.valueOf(status), expectedVersion, user.getEmail());
         return ResponseEntity.ok(order);
     }
 
+    @PutMapping("/bulk/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> bulkUpdateOrderStatus(
+            @Valid @RequestBody BulkOrderStatusRequest request,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        Map<String, Object> result = orderService.bulkUpdateOrderStatus(request.getOrderIds(), request.getStatus(), user.getEmail());
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}/tracking")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Order> updateTrackingNumber(
@@ -2,9 +2,10 @@ package com.jewelcca.controller;
 
 import com.jewelcca.entity.Order;
 import com.jewelcca.entity.User;
+import com.jewelcca.exception.PaymentGatewayException;
 import com.jewelcca.service.OrderService;
 import com.jewelcca.service.PaymentService;
-import com.razorpay.RazorpayException;
+import com.jewelcca.service.PaymentWebhookService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,6 +25,9 @@ public class PaymentController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
     @PostMapping("/create-order")
     public ResponseEntity<?> createPaymentOrder(
             @RequestBody Map<String, Object> request,
@@ -44,10 +48,11 @@ public class PaymentController {
                 order.getTotalAmount(),
                 "INR"
             );
+            orderService.attachGatewayOrder(order.getId(), (String) paymentOrder.get("razorpayOrderId"));
 
             return ResponseEntity.ok(paymentOrder);
-        } catch (RazorpayException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Failed to create payment order"));
+        } catch (PaymentGatewayException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Failed to create payment order, please try again"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -67,10 +72,7 @@ public class PaymentController {
 
             if (isValid) {
                 // Update order payment status
-                Order order = orderService.getOrderByOrderNumber(orderNumber);
-                order.setPaymentStatus(Order.PaymentStatus.COMPLETED);
-                order.setStatus(Order.OrderStatus.CONFIRMED);
-                orderService.updateOrderStatus(order.getId(), Order.OrderStatus.CONFIRMED);
+                orderService.confirmPayment(orderNumber, "payment-verify");
 
                 return ResponseEntity.ok(Map.of("success", true, "message", "Payment verified successfully"));
             } else {
@@ -84,14 +86,15 @@ public class PaymentController {
     @PostMapping("/webhook")
     public ResponseEntity<?> handleWebhook(
             @RequestBody String payload,
-            @RequestHeader("X-Razorpay-Signature") String signature) {
+            @RequestHeader("X-Razorpay-Signature") String signature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
         try {
             boolean isValid = paymentService.verifyWebhookSignature(payload, signature);
             
             if (isValid) {
-                // Process webhook payload
-                // Update order status based on webhook event
-                return ResponseEntity.ok(Map.of("status", "success"));
+                // Persist to the inbox and acknowledge; PaymentWebhookService applies it asynchronously
+                boolean accepted = paymentWebhookService.ingest(eventId, payload);
+                return ResponseEntity.ok(Map.of("status", accepted ? "success" : "duplicate"));
             } else {
                 return ResponseEntity.badRequest().body(Map.of("status", "invalid signature"));
             }
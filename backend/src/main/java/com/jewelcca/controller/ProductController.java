@@ -1,5 +1,6 @@
 package com.jewelcca.controller;
 
+import com.jewelcca.dto.ProductDetailResponse;
 import com.jewelcca.entity.Product;
 import com.jewelcca.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +33,12 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<ProductDetailResponse> getProductDetail(@PathVariable Long id) {
+        ProductDetailResponse detail = productService.getProductDetail(id);
+        return ResponseEntity.ok(detail);
+    }
+
     @GetMapping("/category/{categorySlug}")
     public ResponseEntity<Page<Product>> getProductsByCategory(
             @PathVariable String categorySlug, 
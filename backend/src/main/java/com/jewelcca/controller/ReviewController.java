@@ -1,15 +1,19 @@
 package com.jewelcca.controller;
 
+import com.jewelcca.dto.RatingSummary;
+import com.jewelcca.dto.ReviewResponse;
 import com.jewelcca.entity.Review;
 import com.jewelcca.entity.User;
 import com.jewelcca.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/reviews")
 @CrossOrigin(origins = "*")
@@ -19,13 +23,28 @@ public class ReviewController {
     private ReviewService reviewService;
 
     @GetMapping("/product/{productId}")
-    public ResponseEntity<Page<Review>> getProductReviews(
+    public ResponseEntity<Page<ReviewResponse>> getProductReviews(
             @PathVariable Long productId,
-            Pageable pageable) {
-        Page<Review> reviews = reviewService.getProductReviews(productId, pageable);
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Page<ReviewResponse> reviews = reviewService.getProductReviews(productId, sort, Math.max(page, 0), Math.min(Math.max(size, 1), 50));
         return ResponseEntity.ok(reviews);
     }
 
+    @GetMapping("/product/{productId}/summary")
+    public ResponseEntity<RatingSummary> getRatingSummary(@PathVariable Long productId) {
+        RatingSummary summary = reviewService.getRatingSummary(productId);
+        return ResponseEntity.ok(summary);
+    }
+
+    @PostMapping("/rating-summaries/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> rebuildRatingSummaries() {
+        int products = reviewService.rebuildRatingSummaries();
+        return ResponseEntity.ok(Map.of("productsUpdated", products));
+    }
+
     @PostMapping("/product/{productId}")
     public ResponseEntity<Review> addReview(
             @PathVariable Long productId,
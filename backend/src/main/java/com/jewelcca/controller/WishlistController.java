@@ -1,8 +1,10 @@
 package com.jewelcca.controller;
 
+import com.jewelcca.dto.WishlistContainsRequest;
 import com.jewelcca.entity.User;
 import com.jewelcca.entity.WishlistItem;
 import com.jewelcca.service.WishlistService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -52,4 +54,12 @@ public class WishlistController {
         boolean isInWishlist = wishlistService.isInWishlist(user.getId(), productId);
         return ResponseEntity.ok(Map.of("isInWishlist", isInWishlist));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/contains")
+    public ResponseEntity<Map<Long, Boolean>> containsProducts(
+            @Valid @RequestBody WishlistContainsRequest request,
+            Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(wishlistService.containsProducts(user.getId(), request.getProductIds()));
+    }
+}
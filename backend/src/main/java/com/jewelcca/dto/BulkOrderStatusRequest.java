@@ -0,0 +1,32 @@
+package com.jewelcca.dto;
+
+import com.jewelcca.entity.Order;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkOrderStatusRequest {
+    @NotEmpty
+    @Size(max = 10000)
+    private List<Long> orderIds;
+
+    @NotNull
+    private Order.OrderStatus status;
+
+    // Constructors
+    public BulkOrderStatusRequest() {}
+
+    public BulkOrderStatusRequest(List<Long> orderIds, Order.OrderStatus status) {
+        this.orderIds = orderIds;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public List<Long> getOrderIds() { return orderIds; }
+    public void setOrderIds(List<Long> orderIds) { this.orderIds = orderIds; }
+
+    public Order.OrderStatus getStatus() { return status; }
+    public void setStatus(Order.OrderStatus status) { this.status = status; }
+}
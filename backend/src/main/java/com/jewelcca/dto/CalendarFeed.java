@@ -0,0 +1,20 @@
+package com.jewelcca.dto;
+
+import org.springframework.util.DigestUtils;
+
+// A rendered iCalendar feed and its ETag, published together so a reader never sees one without the other
+public class CalendarFeed {
+    private final byte[] body;
+    private final String etag;
+
+    // Constructors
+    public CalendarFeed(byte[] body) {
+        this.body = body;
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    // Getters
+    public byte[] getBody() { return body; }
+
+    public String getEtag() { return etag; }
+}
@@ -0,0 +1,40 @@
+package com.jewelcca.dto;
+
+import com.jewelcca.entity.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class EventFeedResponse {
+    private List<Event> events;
+    private boolean hasMore;
+    // Cursor for the next page: the date and id of the last event returned
+    private LocalDateTime cursorDate;
+    private Long cursorId;
+
+    // Constructors
+    public EventFeedResponse() {}
+
+    public EventFeedResponse(List<Event> events, boolean hasMore) {
+        this.events = events;
+        this.hasMore = hasMore;
+        if (!events.isEmpty()) {
+            Event last = events.get(events.size() - 1);
+            this.cursorDate = last.getDate();
+            this.cursorId = last.getId();
+        }
+    }
+
+    // Getters and Setters
+    public List<Event> getEvents() { return events; }
+    public void setEvents(List<Event> events) { this.events = events; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public LocalDateTime getCursorDate() { return cursorDate; }
+    public void setCursorDate(LocalDateTime cursorDate) { this.cursorDate = cursorDate; }
+
+    public Long getCursorId() { return cursorId; }
+    public void setCursorId(Long cursorId) { this.cursorId = cursorId; }
+}
@@ -0,0 +1,47 @@
+package com.jewelcca.dto;
+
+import com.jewelcca.entity.Offer;
+
+import java.math.BigDecimal;
+
+public class OfferQuote {
+    private BigDecimal subtotal;
+    private BigDecimal discountAmount;
+    private BigDecimal total;
+    private Long offerId;
+    private String offerCode;
+    private String offerTitle;
+
+    // Constructors
+    public OfferQuote() {}
+
+    public OfferQuote(BigDecimal subtotal, BigDecimal discountAmount, BigDecimal total, Offer appliedOffer) {
+        this.subtotal = subtotal;
+        this.discountAmount = discountAmount;
+        this.total = total;
+        if (appliedOffer != null) {
+            this.offerId = appliedOffer.getId();
+            this.offerCode = appliedOffer.getCode();
+            this.offerTitle = appliedOffer.getTitle();
+        }
+    }
+
+    // Getters and Setters
+    public BigDecimal getSubtotal() { return subtotal; }
+    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
+
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+    public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
+
+    public BigDecimal getTotal() { return total; }
+    public void setTotal(BigDecimal total) { this.total = total; }
+
+    public Long getOfferId() { return offerId; }
+    public void setOfferId(Long offerId) { this.offerId = offerId; }
+
+    public String getOfferCode() { return offerCode; }
+    public void setOfferCode(String offerCode) { this.offerCode = offerCode; }
+
+    public String getOfferTitle() { return offerTitle; }
+    public void setOfferTitle(String offerTitle) { this.offerTitle = offerTitle; }
+}
@@ -0,0 +1,40 @@
+package com.jewelcca.dto;
+
+import com.jewelcca.entity.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OrderFeedResponse {
+    private List<Order> orders;
+    private boolean hasMore;
+    // Cursor for the next page: the creation time and id of the last order returned
+    private LocalDateTime cursorDate;
+    private Long cursorId;
+
+    // Constructors
+    public OrderFeedResponse() {}
+
+    public OrderFeedResponse(List<Order> orders, boolean hasMore) {
+        this.orders = orders;
+        this.hasMore = hasMore;
+        if (!orders.isEmpty()) {
+            Order last = orders.get(orders.size() - 1);
+            this.cursorDate = last.getCreatedAt();
+            this.cursorId = last.getId();
+        }
+    }
+
+    // Getters and Setters
+    public List<Order> getOrders() { return orders; }
+    public void setOrders(List<Order> orders) { this.orders = orders; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public LocalDateTime getCursorDate() { return cursorDate; }
+    public void setCursorDate(LocalDateTime cursorDate) { this.cursorDate = cursorDate; }
+
+    public Long getCursorId() { return cursorId; }
+    public void setCursorId(Long cursorId) { this.cursorId = cursorId; }
+}
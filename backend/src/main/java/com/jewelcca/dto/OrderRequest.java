@@ -4,6 +4,7 @@ import com.jewelcca.entity.Address;
 import com.jewelcca.entity.Order;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class OrderRequest {
     @NotNull
@@ -13,6 +14,9 @@ public class OrderRequest {
     @NotNull
     private Address shippingAddress;
 
+    @Size(max = 50)
+    private String couponCode;
+
     // Constructors
     public OrderRequest() {}
 
@@ -27,4 +31,7 @@ public class OrderRequest {
 
     public Address getShippingAddress() { return shippingAddress; }
     public void setShippingAddress(Address shippingAddress) { this.shippingAddress = shippingAddress; }
+
+    public String getCouponCode() { return couponCode; }
+    public void setCouponCode(String couponCode) { this.couponCode = couponCode; }
 }
\ No newline at end of file
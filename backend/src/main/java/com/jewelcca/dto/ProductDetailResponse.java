@@ -0,0 +1,29 @@
+package com.jewelcca.dto;
+
+import com.jewelcca.entity.Product;
+import org.springframework.data.domain.Page;
+
+public class ProductDetailResponse {
+    private Product product;
+    private RatingSummary ratingSummary;
+    private Page<ReviewResponse> reviews;
+
+    // Constructors
+    public ProductDetailResponse() {}
+
+    public ProductDetailResponse(Product product, RatingSummary ratingSummary, Page<ReviewResponse> reviews) {
+        this.product = product;
+        this.ratingSummary = ratingSummary;
+        this.reviews = reviews;
+    }
+
+    // Getters and Setters
+    public Product getProduct() { return product; }
+    public void setProduct(Product product) { this.product = product; }
+
+    public RatingSummary getRatingSummary() { return ratingSummary; }
+    public void setRatingSummary(RatingSummary ratingSummary) { this.ratingSummary = ratingSummary; }
+
+    public Page<ReviewResponse> getReviews() { return reviews; }
+    public void setReviews(Page<ReviewResponse> reviews) { this.reviews = reviews; }
+}
@@ -0,0 +1,53 @@
+package com.jewelcca.dto;
+
+import com.jewelcca.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class RatingSummary {
+    private Long productId;
+    private BigDecimal averageRating;
+    private Integer reviewCount;
+    private Map<Integer, Integer> distribution;
+
+    // Constructors
+    public RatingSummary() {}
+
+    public RatingSummary(Long productId, BigDecimal averageRating, Integer reviewCount,
+                         Integer oneStar, Integer twoStar, Integer threeStar, Integer fourStar, Integer fiveStar) {
+        this.productId = productId;
+        this.averageRating = averageRating;
+        this.reviewCount = reviewCount;
+        this.distribution = new LinkedHashMap<>();
+        this.distribution.put(5, valueOf(fiveStar));
+        this.distribution.put(4, valueOf(fourStar));
+        this.distribution.put(3, valueOf(threeStar));
+        this.distribution.put(2, valueOf(twoStar));
+        this.distribution.put(1, valueOf(oneStar));
+    }
+
+    public static RatingSummary of(Product product) {
+        return new RatingSummary(product.getId(), product.getRating(), product.getReviewCount(),
+                product.getRating1Count(), product.getRating2Count(), product.getRating3Count(),
+                product.getRating4Count(), product.getRating5Count());
+    }
+
+    private static int valueOf(Integer count) {
+        return count != null ? count : 0;
+    }
+
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public BigDecimal getAverageRating() { return averageRating; }
+    public void setAverageRating(BigDecimal averageRating) { this.averageRating = averageRating; }
+
+    public Integer getReviewCount() { return reviewCount; }
+    public void setReviewCount(Integer reviewCount) { this.reviewCount = reviewCount; }
+
+    public Map<Integer, Integer> getDistribution() { return distribution; }
+    public void setDistribution(Map<Integer, Integer> distribution) { this.distribution = distribution; }
+}
@@ -0,0 +1,57 @@
+package com.jewelcca.dto;
+
+import java.time.LocalDateTime;
+
+public class ReviewResponse {
+    private Long id;
+    private Integer rating;
+    private String comment;
+    private LocalDateTime createdAt;
+    private boolean verifiedPurchase;
+    private Long userId;
+    private String userName;
+
+    // Constructors
+    public ReviewResponse() {}
+
+    public ReviewResponse(Long id, Integer rating, String comment, LocalDateTime createdAt,
+                          boolean verifiedPurchase, Long userId, String firstName, String lastName) {
+        this.id = id;
+        this.rating = rating;
+        this.comment = comment;
+        this.createdAt = createdAt;
+        this.verifiedPurchase = verifiedPurchase;
+        this.userId = userId;
+        this.userName = displayName(firstName, lastName);
+    }
+
+    // "Priya S." style, never the reviewer's full surname or email
+    private static String displayName(String firstName, String lastName) {
+        if (lastName == null || lastName.isBlank()) {
+            return firstName;
+        }
+        return firstName + " " + lastName.charAt(0) + ".";
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Integer getRating() { return rating; }
+    public void setRating(Integer rating) { this.rating = rating; }
+
+    public String getComment() { return comment; }
+    public void setComment(String comment) { this.comment = comment; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public boolean isVerifiedPurchase() { return verifiedPurchase; }
+    public void setVerifiedPurchase(boolean verifiedPurchase) { this.verifiedPurchase = verifiedPurchase; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+}
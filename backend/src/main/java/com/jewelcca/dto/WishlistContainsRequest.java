@@ -0,0 +1,23 @@
+package com.jewelcca.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class WishlistContainsRequest {
+    @NotNull
+    @Size(max = 500)
+    private List<Long> productIds;
+
+    // Constructors
+    public WishlistContainsRequest() {}
+
+    public WishlistContainsRequest(List<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    // Getters and Setters
+    public List<Long> getProductIds() { return productIds; }
+    public void setProductIds(List<Long> productIds) { this.productIds = productIds; }
+}
@@ -31,6 +31,10 @@ public class Category {
 
     private String imageUrl;
 
+    // Products below this stock count are reported as low stock; null uses inventory.low-stock-threshold
+    @Column(name = "low_stock_threshold")
+    private Integer lowStockThreshold;
+
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Product> products;
@@ -67,6 +71,9 @@ public class Category {
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
 
+    public Integer getLowStockThreshold() { return lowStockThreshold; }
+    public void setLowStockThreshold(Integer lowStockThreshold) { this.lowStockThreshold = lowStockThreshold; }
+
     public List<Product> getProducts() { return products; }
     public void setProducts(List<Product> products) { this.products = products; }
 
@@ -0,0 +1,62 @@
+package com.jewelcca.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Share of a monthly acquisition cohort that ordered again N months later, rewritten by CustomerAnalyticsService
+@Entity
+@Table(name = "customer_cohorts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_customer_cohorts_month_offset", columnNames = {"cohort_month", "month_offset"})
+})
+public class CustomerCohort {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // First day of the month of the customers' first delivered order
+    @Column(name = "cohort_month", nullable = false)
+    private LocalDate cohortMonth;
+
+    @Column(name = "month_offset", nullable = false)
+    private Integer monthOffset;
+
+    @Column(name = "cohort_size", nullable = false)
+    private Integer cohortSize;
+
+    @Column(name = "active_customers", nullable = false)
+    private Integer activeCustomers;
+
+    @Column(nullable = false, precision = 5, scale = 4)
+    private BigDecimal retention;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    // Constructors
+    public CustomerCohort() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getCohortMonth() { return cohortMonth; }
+    public void setCohortMonth(LocalDate cohortMonth) { this.cohortMonth = cohortMonth; }
+
+    public Integer getMonthOffset() { return monthOffset; }
+    public void setMonthOffset(Integer monthOffset) { this.monthOffset = monthOffset; }
+
+    public Integer getCohortSize() { return cohortSize; }
+    public void setCohortSize(Integer cohortSize) { this.cohortSize = cohortSize; }
+
+    public Integer getActiveCustomers() { return activeCustomers; }
+    public void setActiveCustomers(Integer activeCustomers) { this.activeCustomers = activeCustomers; }
+
+    public BigDecimal getRetention() { return retention; }
+    public void setRetention(BigDecimal retention) { this.retention = retention; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
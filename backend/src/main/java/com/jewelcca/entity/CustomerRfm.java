@@ -0,0 +1,85 @@
+package com.jewelcca.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Per-customer recency/frequency/monetary snapshot over delivered orders, rewritten by CustomerAnalyticsService
+@Entity
+@Table(name = "customer_rfm", indexes = {
+        @Index(name = "idx_customer_rfm_segment_monetary", columnList = "segment, monetary")
+})
+public class CustomerRfm {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "recency_days", nullable = false)
+    private Integer recencyDays;
+
+    @Column(nullable = false)
+    private Integer frequency;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal monetary;
+
+    // Quintile scores, 5 is best
+    @Column(name = "recency_score", nullable = false)
+    private Integer recencyScore;
+
+    @Column(name = "frequency_score", nullable = false)
+    private Integer frequencyScore;
+
+    @Column(name = "monetary_score", nullable = false)
+    private Integer monetaryScore;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Segment segment;
+
+    @Column(name = "last_order_date", nullable = false)
+    private LocalDate lastOrderDate;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    // Constructors
+    public CustomerRfm() {}
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Integer getRecencyDays() { return recencyDays; }
+    public void setRecencyDays(Integer recencyDays) { this.recencyDays = recencyDays; }
+
+    public Integer getFrequency() { return frequency; }
+    public void setFrequency(Integer frequency) { this.frequency = frequency; }
+
+    public BigDecimal getMonetary() { return monetary; }
+    public void setMonetary(BigDecimal monetary) { this.monetary = monetary; }
+
+    public Integer getRecencyScore() { return recencyScore; }
+    public void setRecencyScore(Integer recencyScore) { this.recencyScore = recencyScore; }
+
+    public Integer getFrequencyScore() { return frequencyScore; }
+    public void setFrequencyScore(Integer frequencyScore) { this.frequencyScore = frequencyScore; }
+
+    public Integer getMonetaryScore() { return monetaryScore; }
+    public void setMonetaryScore(Integer monetaryScore) { this.monetaryScore = monetaryScore; }
+
+    public Segment getSegment() { return segment; }
+    public void setSegment(Segment segment) { this.segment = segment; }
+
+    public LocalDate getLastOrderDate() { return lastOrderDate; }
+    public void setLastOrderDate(LocalDate lastOrderDate) { this.lastOrderDate = lastOrderDate; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+
+    public enum Segment {
+        CHAMPIONS, LOYAL, POTENTIAL_LOYALIST, NEW_CUSTOMER, NEEDS_ATTENTION, AT_RISK, HIBERNATING
+    }
+}
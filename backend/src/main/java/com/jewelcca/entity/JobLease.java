@@ -0,0 +1,43 @@
+package com.jewelcca.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(length = 200)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    private Long checkpoint = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructors
+    public JobLease() {}
+
+    // Getters and Setters
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+
+    public Long getCheckpoint() { return checkpoint; }
+    public void setCheckpoint(Long checkpoint) { this.checkpoint = checkpoint; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -3,6 +3,7 @@ package com.jewelcca.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -38,6 +39,15 @@ public class Offer {
 
     private boolean isActive = true;
 
+    // Optional caps for coupon codes; null means unlimited
+    @Min(1)
+    @Column(name = "max_redemptions")
+    private Integer maxRedemptions;
+
+    @Min(1)
+    @Column(name = "max_redemptions_per_user")
+    private Integer maxRedemptionsPerUser;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -82,6 +92,12 @@ public class Offer {
     public boolean isActive() { return isActive; }
     public void setActive(boolean active) { isActive = active; }
 
+    public Integer getMaxRedemptions() { return maxRedemptions; }
+    public void setMaxRedemptions(Integer maxRedemptions) { this.maxRedemptions = maxRedemptions; }
+
+    public Integer getMaxRedemptionsPerUser() { return maxRedemptionsPerUser; }
+    public void setMaxRedemptionsPerUser(Integer maxRedemptionsPerUser) { this.maxRedemptionsPerUser = maxRedemptionsPerUser; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,50 @@
+package com.jewelcca.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "offer_redemption_shards", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_offer_redemption_shards_offer_shard", columnNames = {"offer_id", "shard"})
+})
+public class OfferRedemptionShard {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "offer_id", nullable = false)
+    private Long offerId;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Integer capacity;
+
+    @Column(nullable = false)
+    private Integer used = 0;
+
+    // Constructors
+    public OfferRedemptionShard() {}
+
+    public OfferRedemptionShard(Long offerId, Integer shard, Integer capacity) {
+        this.offerId = offerId;
+        this.shard = shard;
+        this.capacity = capacity;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOfferId() { return offerId; }
+    public void setOfferId(Long offerId) { this.offerId = offerId; }
+
+    public Integer getShard() { return shard; }
+    public void setShard(Integer shard) { this.shard = shard; }
+
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+
+    public Integer getUsed() { return used; }
+    public void setUsed(Integer used) { this.used = used; }
+}
@@ -0,0 +1,38 @@
+package com.jewelcca.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "offer_user_redemptions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_offer_user_redemptions_offer_user", columnNames = {"offer_id", "user_id"})
+})
+public class OfferUserRedemption {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "offer_id", nullable = false)
+    private Long offerId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer redemptions = 0;
+
+    // Constructors
+    public OfferUserRedemption() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOfferId() { return offerId; }
+    public void setOfferId(Long offerId) { this.offerId = offerId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Integer getRedemptions() { return redemptions; }
+    public void setRedemptions(Integer redemptions) { this.redemptions = redemptions; }
+}
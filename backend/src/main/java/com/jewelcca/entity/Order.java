@@ -13,7 +13,12 @@ import java.util.List;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_gateway_order_id", columnList = "gateway_order_id"),
+        @Index(name = "idx_orders_created_at", columnList = "created_at"),
+        @Index(name = "idx_orders_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_orders_payment_method_created_at", columnList = "payment_method, created_at")
+})
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,6 +41,20 @@ public class Order {
     @Column(precision = 10, scale = 2)
     private BigDecimal totalAmount;
 
+    @Column(name = "discount_amount", precision = 10, scale = 2, columnDefinition = "numeric(10,2) default 0")
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    @Column(name = "offer_id")
+    private Long offerId;
+
+    @Column(name = "offer_code")
+    private String offerCode;
+
+    // Redemption counter shard taken at checkout, given back if the order is cancelled
+    @JsonIgnore
+    @Column(name = "offer_shard")
+    private Integer offerShard;
+
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.PENDING;
 
@@ -48,6 +67,9 @@ public class Order {
     @Embedded
     private Address shippingAddress;
 
+    @Column(name = "gateway_order_id")
+    private String gatewayOrderId;
+
     private String trackingNumber;
     private LocalDateTime estimatedDelivery;
 
@@ -57,6 +79,10 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     // Constructors
     public Order() {}
 
@@ -83,6 +109,18 @@ public class Order {
     public BigDecimal getTotalAmount() { return totalAmount; }
     public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
 
+    public BigDecimal getDiscountAmount() { return discountAmount; }
+    public void setDiscountAmount(BigDecimal discountAmount) { this.discountAmount = discountAmount; }
+
+    public Long getOfferId() { return offerId; }
+    public void setOfferId(Long offerId) { this.offerId = offerId; }
+
+    public String getOfferCode() { return offerCode; }
+    public void setOfferCode(String offerCode) { this.offerCode = offerCode; }
+
+    public Integer getOfferShard() { return offerShard; }
+    public void setOfferShard(Integer offerShard) { this.offerShard = offerShard; }
+
     public OrderStatus getStatus() { return status; }
     public void setStatus(OrderStatus status) { this.status = status; }
 
@@ -95,6 +133,9 @@ public class Order {
     public Address getShippingAddress() { return shippingAddress; }
     public void setShippingAddress(Address shippingAddress) { this.shippingAddress = shippingAddress; }
 
+    public String getGatewayOrderId() { return gatewayOrderId; }
+    public void setGatewayOrderId(String gatewayOrderId) { this.gatewayOrderId = gatewayOrderId; }
+
     public String getTrackingNumber() { return trackingNumber; }
     public void setTrackingNumber(String trackingNumber) { this.trackingNumber = trackingNumber; }
 
@@ -107,8 +148,25 @@ public class Order {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public enum OrderStatus {
-        PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED
+        PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED;
+
+        // Orders move forward one step at a time and can only be cancelled before they ship
+        public boolean canTransitionTo(OrderStatus next) {
+            switch (this) {
+                case PENDING:
+                    return next == CONFIRMED || next == CANCELLED;
+                case CONFIRMED:
+                    return next == SHIPPED || next == CANCELLED;
+                case SHIPPED:
+                    return next == DELIVERED;
+                default:
+                    return false;
+            }
+        }
     }
 
     public enum PaymentMethod {
@@ -0,0 +1,57 @@
+package com.jewelcca.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Table(name = "order_status_history", indexes = {
+        @Index(name = "idx_order_status_history_order", columnList = "order_id, changed_at")
+})
+public class OrderStatusHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", updatable = false)
+    private Order.OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, updatable = false)
+    private Order.OrderStatus toStatus;
+
+    @Column(name = "changed_by", updatable = false)
+    private String changedBy;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt = LocalDateTime.now();
+
+    // Constructors
+    public OrderStatusHistory() {}
+
+    public OrderStatusHistory(Long orderId, Order.OrderStatus fromStatus, Order.OrderStatus toStatus, String changedBy) {
+        this.orderId = orderId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.changedBy = changedBy;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public Long getOrderId() { return orderId; }
+
+    public Order.OrderStatus getFromStatus() { return fromStatus; }
+
+    public Order.OrderStatus getToStatus() { return toStatus; }
+
+    public String getChangedBy() { return changedBy; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
@@ -1,5 +1,6 @@
 package com.jewelcca.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
@@ -13,7 +14,9 @@ import java.util.List;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_stock_quantity", columnList = "stock_quantity, id")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -62,11 +65,37 @@ public class Product {
 
     private Integer reviewCount = 0;
 
+    // Running rating aggregates, maintained by ReviewService with atomic delta updates
+    @JsonIgnore
+    @Column(name = "rating_sum", columnDefinition = "bigint default 0")
+    private Long ratingSum = 0L;
+
+    @JsonIgnore
+    @Column(name = "rating_1_count", columnDefinition = "integer default 0")
+    private Integer rating1Count = 0;
+
+    @JsonIgnore
+    @Column(name = "rating_2_count", columnDefinition = "integer default 0")
+    private Integer rating2Count = 0;
+
+    @JsonIgnore
+    @Column(name = "rating_3_count", columnDefinition = "integer default 0")
+    private Integer rating3Count = 0;
+
+    @JsonIgnore
+    @Column(name = "rating_4_count", columnDefinition = "integer default 0")
+    private Integer rating4Count = 0;
+
+    @JsonIgnore
+    @Column(name = "rating_5_count", columnDefinition = "integer default 0")
+    private Integer rating5Count = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonIgnore
     private List<Review> reviews;
 
     @Column(name = "created_at")
@@ -128,6 +157,24 @@ public class Product {
     public Integer getReviewCount() { return reviewCount; }
     public void setReviewCount(Integer reviewCount) { this.reviewCount = reviewCount; }
 
+    public Long getRatingSum() { return ratingSum; }
+    public void setRatingSum(Long ratingSum) { this.ratingSum = ratingSum; }
+
+    public Integer getRating1Count() { return rating1Count; }
+    public void setRating1Count(Integer rating1Count) { this.rating1Count = rating1Count; }
+
+    public Integer getRating2Count() { return rating2Count; }
+    public void setRating2Count(Integer rating2Count) { this.rating2Count = rating2Count; }
+
+    public Integer getRating3Count() { return rating3Count; }
+    public void setRating3Count(Integer rating3Count) { this.rating3Count = rating3Count; }
+
+    public Integer getRating4Count() { return rating4Count; }
+    public void setRating4Count(Integer rating4Count) { this.rating4Count = rating4Count; }
+
+    public Integer getRating5Count() { return rating5Count; }
+    public void setRating5Count(Integer rating5Count) { this.rating5Count = rating5Count; }
+
     public Category getCategory() { return category; }
     public void setCategory(Category category) { this.category = category; }
 
@@ -11,7 +11,10 @@ import java.time.LocalDateTime;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_product_created", columnList = "product_id, verified_purchase, created_at"),
+        @Index(name = "idx_reviews_product_rating", columnList = "product_id, verified_purchase, rating, created_at")
+})
 public class Review {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -33,6 +36,9 @@ public class Review {
     @Size(max = 1000)
     private String comment;
 
+    @Column(name = "verified_purchase", nullable = false, columnDefinition = "boolean default false")
+    private boolean verifiedPurchase = false;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -62,6 +68,9 @@ public class Review {
     public String getComment() { return comment; }
     public void setComment(String comment) { this.comment = comment; }
 
+    public boolean isVerifiedPurchase() { return verifiedPurchase; }
+    public void setVerifiedPurchase(boolean verifiedPurchase) { this.verifiedPurchase = verifiedPurchase; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
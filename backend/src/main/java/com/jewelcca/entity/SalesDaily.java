@@ -0,0 +1,40 @@
+package com.jewelcca.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Delivered-order totals per order creation date, maintained by SalesRollupService
+@Entity
+@Table(name = "sales_daily")
+public class SalesDaily {
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Long units = 0L;
+
+    // Constructors
+    public SalesDaily() {}
+
+    // Getters and Setters
+    public LocalDate getSalesDate() { return salesDate; }
+    public void setSalesDate(LocalDate salesDate) { this.salesDate = salesDate; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+    public Long getUnits() { return units; }
+    public void setUnits(Long units) { this.units = units; }
+}
@@ -7,7 +7,10 @@ import java.time.LocalDateTime;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "wishlist_items")
+@Table(name = "wishlist_items", indexes = {
+        @Index(name = "idx_wishlist_items_product", columnList = "product_id, id"),
+        @Index(name = "idx_wishlist_items_user", columnList = "user_id")
+})
 public class WishlistItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,42 @@
+package com.jewelcca.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published when a product change is worth telling wishlisting customers about.
+ */
+public class ProductChangeEvent {
+
+    public enum ChangeType {
+        PRICE_DROP, BACK_IN_STOCK
+    }
+
+    private final Long productId;
+    private final ChangeType type;
+    private final BigDecimal oldPrice;
+    private final BigDecimal newPrice;
+
+    public ProductChangeEvent(Long productId, ChangeType type, BigDecimal oldPrice, BigDecimal newPrice) {
+        this.productId = productId;
+        this.type = type;
+        this.oldPrice = oldPrice;
+        this.newPrice = newPrice;
+    }
+
+    public static ProductChangeEvent priceDrop(Long productId, BigDecimal oldPrice, BigDecimal newPrice) {
+        return new ProductChangeEvent(productId, ChangeType.PRICE_DROP, oldPrice, newPrice);
+    }
+
+    public static ProductChangeEvent backInStock(Long productId, BigDecimal price) {
+        return new ProductChangeEvent(productId, ChangeType.BACK_IN_STOCK, price, price);
+    }
+
+    // Getters
+    public Long getProductId() { return productId; }
+
+    public ChangeType getType() { return type; }
+
+    public BigDecimal getOldPrice() { return oldPrice; }
+
+    public BigDecimal getNewPrice() { return newPrice; }
+}
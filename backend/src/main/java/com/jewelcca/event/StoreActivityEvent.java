@@ -0,0 +1,55 @@
+package com.jewelcca.event;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published when something happens that connected admins should see live: an order placed, orders
+ * changing status, or a product dropping below its low-stock threshold.
+ */
+public class StoreActivityEvent {
+
+    public enum ActivityType {
+        ORDER_CREATED, ORDER_STATUS_CHANGED, LOW_STOCK
+    }
+
+    private final ActivityType type;
+    private final Map<String, Object> data;
+
+    public StoreActivityEvent(ActivityType type, Map<String, Object> data) {
+        this.type = type;
+        this.data = data;
+    }
+
+    public static StoreActivityEvent orderCreated(Long orderId, String orderNumber, Object totalAmount) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("orderId", orderId);
+        data.put("orderNumber", orderNumber);
+        data.put("totalAmount", totalAmount);
+        return new StoreActivityEvent(ActivityType.ORDER_CREATED, data);
+    }
+
+    public static StoreActivityEvent orderStatusChanged(Collection<Long> orderIds, Object fromStatus, Object toStatus) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("orderIds", List.copyOf(orderIds));
+        data.put("fromStatus", fromStatus);
+        data.put("toStatus", toStatus);
+        return new StoreActivityEvent(ActivityType.ORDER_STATUS_CHANGED, data);
+    }
+
+    public static StoreActivityEvent lowStock(Long productId, String productName, int stockQuantity, int threshold) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("productId", productId);
+        data.put("productName", productName);
+        data.put("stockQuantity", stockQuantity);
+        data.put("threshold", threshold);
+        return new StoreActivityEvent(ActivityType.LOW_STOCK, data);
+    }
+
+    // Getters
+    public ActivityType getType() { return type; }
+
+    public Map<String, Object> getData() { return data; }
+}
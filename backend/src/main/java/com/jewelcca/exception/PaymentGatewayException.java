@@ -0,0 +1,12 @@
+package com.jewelcca.exception;
+
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
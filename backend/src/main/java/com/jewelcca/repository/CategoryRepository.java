@@ -2,6 +2,7 @@ package com.jewelcca.repository;
 
 import com.jewelcca.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +11,7 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findBySlug(String slug);
     boolean existsBySlug(String slug);
+
+    @Query("SELECT COALESCE(MAX(c.lowStockThreshold), 0) FROM Category c")
+    int findMaxLowStockThreshold();
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.CustomerCohort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CustomerCohortRepository extends JpaRepository<CustomerCohort, Long> {
+    List<CustomerCohort> findAllByOrderByCohortMonthAscMonthOffsetAsc();
+}
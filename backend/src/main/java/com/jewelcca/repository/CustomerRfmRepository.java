@@ -0,0 +1,24 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.CustomerRfm;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CustomerRfmRepository extends JpaRepository<CustomerRfm, Long> {
+    Page<CustomerRfm> findBySegment(CustomerRfm.Segment segment, Pageable pageable);
+
+    // (segment, customers, average recency days, average frequency, total monetary)
+    @Query("SELECT r.segment, COUNT(r), AVG(r.recencyDays), AVG(r.frequency), SUM(r.monetary) " +
+            "FROM CustomerRfm r GROUP BY r.segment")
+    List<Object[]> summarizeSegments();
+
+    @Query("SELECT MAX(r.computedAt) FROM CustomerRfm r")
+    LocalDateTime findLastComputedAt();
+}
@@ -1,9 +1,25 @@
 package com.jewelcca.repository;
 
 import com.jewelcca.entity.Event;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
+    List<Event> findByDateGreaterThanEqualOrderByDateAscIdAsc(LocalDateTime from);
+
+    // Keyset page walking back in time from the (beforeDate, beforeId) cursor
+    @Query("SELECT e FROM Event e WHERE e.date < :now " +
+            "AND (e.date < :beforeDate OR (e.date = :beforeDate AND e.id < :beforeId)) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<Event> findPastBefore(@Param("now") LocalDateTime now,
+                               @Param("beforeDate") LocalDateTime beforeDate,
+                               @Param("beforeId") Long beforeId,
+                               Pageable pageable);
 }
@@ -0,0 +1,43 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    // Takes the lease if it is free, expired or already ours; the checkpoint survives across owners
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO job_leases (job_name, owner, lease_until, checkpoint, updated_at) " +
+            "VALUES (:jobName, :owner, :leaseUntil, 0, :now) " +
+            "ON CONFLICT (job_name) DO UPDATE SET owner = EXCLUDED.owner, lease_until = EXCLUDED.lease_until, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "WHERE job_leases.lease_until < :now OR job_leases.owner = :owner", nativeQuery = true)
+    int tryAcquire(@Param("jobName") String jobName,
+                   @Param("owner") String owner,
+                   @Param("leaseUntil") LocalDateTime leaseUntil,
+                   @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.checkpoint = :checkpoint, l.leaseUntil = :leaseUntil, l.updatedAt = :now " +
+            "WHERE l.jobName = :jobName AND l.owner = :owner")
+    int saveCheckpoint(@Param("jobName") String jobName,
+                       @Param("owner") String owner,
+                       @Param("checkpoint") Long checkpoint,
+                       @Param("leaseUntil") LocalDateTime leaseUntil,
+                       @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leaseUntil = :now, l.updatedAt = :now WHERE l.jobName = :jobName AND l.owner = :owner")
+    int release(@Param("jobName") String jobName, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
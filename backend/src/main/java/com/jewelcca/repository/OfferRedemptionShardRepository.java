@@ -0,0 +1,47 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.OfferRedemptionShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OfferRedemptionShardRepository extends JpaRepository<OfferRedemptionShard, Long> {
+
+    // Creates whichever of the offer's shards are missing; rows inserted by a concurrent call are skipped
+    @Modifying
+    @Query(value = "INSERT INTO offer_redemption_shards (offer_id, shard, capacity, used) " +
+            "SELECT :offerId, s, 0, 0 FROM generate_series(0, :shardCount - 1) s " +
+            "ON CONFLICT (offer_id, shard) DO NOTHING", nativeQuery = true)
+    int insertMissingShards(@Param("offerId") Long offerId, @Param("shardCount") int shardCount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OfferRedemptionShard s WHERE s.offerId = :offerId ORDER BY s.shard")
+    List<OfferRedemptionShard> lockByOfferId(@Param("offerId") Long offerId);
+
+    // Takes one unit of the shard's capacity; 0 rows means the shard is used up
+    @Modifying
+    @Query(value = "UPDATE offer_redemption_shards SET used = used + 1 " +
+            "WHERE offer_id = :offerId AND shard = :shard AND used < capacity", nativeQuery = true)
+    int tryRedeem(@Param("offerId") Long offerId, @Param("shard") int shard);
+
+    @Modifying
+    @Query(value = "UPDATE offer_redemption_shards SET used = used - 1 " +
+            "WHERE offer_id = :offerId AND shard = :shard AND used > 0", nativeQuery = true)
+    int release(@Param("offerId") Long offerId, @Param("shard") int shard);
+
+    boolean existsByOfferId(Long offerId);
+
+    @Query("SELECT COALESCE(SUM(s.used), 0) FROM OfferRedemptionShard s WHERE s.offerId = :offerId")
+    long sumUsedByOfferId(@Param("offerId") Long offerId);
+
+    @Modifying
+    @Query("DELETE FROM OfferRedemptionShard s WHERE s.offerId = :offerId")
+    int deleteByOfferId(@Param("offerId") Long offerId);
+}
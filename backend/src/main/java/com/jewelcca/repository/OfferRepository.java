@@ -3,6 +3,7 @@ package com.jewelcca.repository;
 import com.jewelcca.entity.Offer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -17,4 +18,8 @@ public interface OfferRepository extends JpaRepository<Offer, Long> {
     List<Offer> findActiveOffers(LocalDateTime now);
     
     Optional<Offer> findByCode(String code);
+
+    // Read at checkout so the per-user cap is the committed one, not a node's cached copy
+    @Query("SELECT o.maxRedemptionsPerUser FROM Offer o WHERE o.id = :id")
+    Integer findMaxRedemptionsPerUserById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.OfferUserRedemption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OfferUserRedemptionRepository extends JpaRepository<OfferUserRedemption, Long> {
+
+    // Counts one redemption unless the user is already at the limit; 0 rows means the limit is reached
+    @Modifying
+    @Query(value = "INSERT INTO offer_user_redemptions (offer_id, user_id, redemptions) VALUES (:offerId, :userId, 1) " +
+            "ON CONFLICT (offer_id, user_id) DO UPDATE SET redemptions = offer_user_redemptions.redemptions + 1 " +
+            "WHERE offer_user_redemptions.redemptions < :limit", nativeQuery = true)
+    int tryRedeem(@Param("offerId") Long offerId, @Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE offer_user_redemptions SET redemptions = redemptions - 1 " +
+            "WHERE offer_id = :offerId AND user_id = :userId AND redemptions > 0", nativeQuery = true)
+    int release(@Param("offerId") Long offerId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM OfferUserRedemption r WHERE r.offerId = :offerId")
+    int deleteByOfferId(@Param("offerId") Long offerId);
+}
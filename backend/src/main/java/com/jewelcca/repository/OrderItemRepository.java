@@ -0,0 +1,33 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.Order;
+import com.jewelcca.entity.OrderItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // (category name, sales) for orders created in [from, to), using the price paid
+    @Query("SELECT c.name, SUM(i.price * i.quantity) FROM OrderItem i JOIN i.order o JOIN i.product p JOIN p.category c " +
+            "WHERE o.status = :status AND o.createdAt >= :from AND o.createdAt < :to " +
+            "GROUP BY c.id, c.name ORDER BY SUM(i.price * i.quantity) DESC")
+    List<Object[]> sumSalesByCategory(@Param("status") Order.OrderStatus status,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    // (product id, product name, units sold, revenue at the price paid) for orders created in [from, to)
+    @Query("SELECT p.id, p.name, SUM(i.quantity), SUM(i.price * i.quantity) FROM OrderItem i JOIN i.order o JOIN i.product p " +
+            "WHERE o.status = :status AND o.createdAt >= :from AND o.createdAt < :to " +
+            "GROUP BY p.id, p.name ORDER BY SUM(i.quantity) DESC")
+    List<Object[]> findTopSellingProducts(@Param("status") Order.OrderStatus status,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          Pageable pageable);
+}
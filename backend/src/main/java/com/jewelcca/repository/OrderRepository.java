@@ -1,30 +1,127 @@
 package com.jewelcca.repository;
 
 import com.jewelcca.entity.Order;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>, OrderRepositoryCustom {
     Page<Order> findByUserId(Long userId, Pageable pageable);
     Optional<Order> findByOrderNumber(String orderNumber);
+    Optional<Order> findByGatewayOrderId(String gatewayOrderId);
     List<Order> findByUserIdOrderByCreatedAtDesc(Long userId);
     
     // Admin queries
-    List<Order> findByStatus(Order.OrderStatus status);
     long countByStatus(Order.OrderStatus status);
-    List<Order> findByCreatedAtAfter(LocalDateTime date);
-    List<Order> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
-    List<Order> findByCreatedAtAfterAndStatus(LocalDateTime date, Order.OrderStatus status);
     Page<Order> findByOrderNumberContainingIgnoreCase(String keyword, Pageable pageable);
-    
-    @Query("SELECT o.user.id, COUNT(o) FROM Order o GROUP BY o.user.id")
-    List<Object[]> findCustomerOrderCounts();
-}
\ No newline at end of file
+    long countByCreatedAtGreaterThanEqual(LocalDateTime from);
+    long countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(LocalDateTime from, LocalDateTime to);
+
+    // Dashboard aggregates, computed in the database
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.status = :status")
+    BigDecimal sumTotalAmountByStatus(@Param("status") Order.OrderStatus status);
+
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.status = :status AND o.createdAt >= :from")
+    BigDecimal sumTotalAmountByStatusAndCreatedAtFrom(@Param("status") Order.OrderStatus status,
+                                                     @Param("from") LocalDateTime from);
+
+    // (status, order count, total amount) for orders created in [from, to]
+    @Query("SELECT o.status, COUNT(o), COALESCE(SUM(o.totalAmount), 0) FROM Order o " +
+            "WHERE o.createdAt >= :from AND o.createdAt <= :to GROUP BY o.status")
+    List<Object[]> summarizeByStatusBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query(value = "SELECT COUNT(*) FROM (SELECT user_id FROM orders GROUP BY user_id HAVING COUNT(*) > 1) repeat_customers",
+            nativeQuery = true)
+    long countRepeatCustomers();
+
+    @Query("SELECT o.orderNumber, o.id, o.status FROM Order o WHERE o.orderNumber IN :orderNumbers")
+    List<Object[]> findRefsByOrderNumberIn(@Param("orderNumbers") Collection<String> orderNumbers);
+
+    // Payment reconciliation, keyset-paged on id
+    @Query("SELECT o.id, o.gatewayOrderId, o.createdAt FROM Order o WHERE o.paymentStatus = :paymentStatus " +
+            "AND o.paymentMethod <> :excludedMethod AND o.id > :afterId AND o.createdAt < :createdBefore ORDER BY o.id")
+    List<Object[]> findPaymentsToReconcile(@Param("paymentStatus") Order.PaymentStatus paymentStatus,
+                                           @Param("excludedMethod") Order.PaymentMethod excludedMethod,
+                                           @Param("afterId") Long afterId,
+                                           @Param("createdBefore") LocalDateTime createdBefore,
+                                           Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.paymentStatus = :paymentStatus, o.updatedAt = :now, o.version = o.version + 1 " +
+            "WHERE o.id IN :ids AND o.paymentStatus = :expectedStatus")
+    int updatePaymentStatusByIdIn(@Param("ids") Collection<Long> ids,
+                                  @Param("expectedStatus") Order.PaymentStatus expectedStatus,
+                                  @Param("paymentStatus") Order.PaymentStatus paymentStatus,
+                                  @Param("now") LocalDateTime now);
+
+    // Status transitions
+    @Query("SELECT o.id, o.status FROM Order o WHERE o.id IN :ids")
+    List<Object[]> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT id FROM orders WHERE id IN (:ids) AND status = :status ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :now, o.version = o.version + 1 WHERE o.id IN :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("status") Order.OrderStatus status,
+                           @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :now, o.estimatedDelivery = :estimatedDelivery, " +
+            "o.version = o.version + 1 WHERE o.id IN :ids")
+    int updateStatusAndEstimatedDeliveryByIdIn(@Param("ids") Collection<Long> ids,
+                                               @Param("status") Order.OrderStatus status,
+                                               @Param("now") LocalDateTime now,
+                                               @Param("estimatedDelivery") LocalDateTime estimatedDelivery);
+
+    // (userId, productId) purchase pairs, ordered by user so the purchase index can be built in one pass
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT DISTINCT o.user.id, i.product.id FROM Order o JOIN o.orderItems i " +
+            "WHERE o.status = :status ORDER BY o.user.id")
+    Stream<Object[]> streamUserProductPairsByStatus(@Param("status") Order.OrderStatus status);
+
+    // Export rows in id order, read through a cursor
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT o.id, o.orderNumber, u.email, o.status, o.paymentMethod, o.paymentStatus, o.totalAmount, " +
+            "o.discountAmount, o.offerCode, o.trackingNumber, o.createdAt FROM Order o LEFT JOIN o.user u " +
+            "WHERE o.createdAt >= :from AND o.createdAt <= :to ORDER BY o.id")
+    Stream<Object[]> streamExportRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Customer analytics: (userId, orders, total spent, last order time) per customer
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT o.user.id, COUNT(o), SUM(o.totalAmount), MAX(o.createdAt) FROM Order o " +
+            "WHERE o.status = :status AND o.user IS NOT NULL GROUP BY o.user.id")
+    Stream<Object[]> streamCustomerAggregates(@Param("status") Order.OrderStatus status);
+
+    // (userId, months since year 0) for every month a customer ordered in, ordered by user then month
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query(value = "SELECT user_id, CAST(EXTRACT(YEAR FROM created_at) * 12 + EXTRACT(MONTH FROM created_at) - 1 AS INTEGER) AS month_index " +
+            "FROM orders WHERE status = :status AND user_id IS NOT NULL " +
+            "GROUP BY user_id, month_index ORDER BY user_id, month_index", nativeQuery = true)
+    Stream<Object[]> streamCustomerOrderMonths(@Param("status") String status);
+
+    @Query("SELECT o.offerId, o.offerShard, o.user.id FROM Order o WHERE o.id IN :ids AND o.offerId IS NOT NULL")
+    List<Object[]> findOfferRedemptionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT o.user.id, i.product.id FROM Order o JOIN o.orderItems i WHERE o.id IN :ids")
+    List<Object[]> findUserProductPairsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,13 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    // The first {@code limit} matching orders, without the count query a Page would run
+    List<Order> findSlice(Specification<Order> spec, Sort sort, int limit);
+}
@@ -0,0 +1,51 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.Order;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Admin order filters. Each filter is left out when its value is null, so the WHERE clause only
+ * carries the columns actually filtered on and the (status, created_at) and
+ * (payment_method, created_at) indexes can serve it.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {}
+
+    public static Specification<Order> filter(Order.OrderStatus status, Order.PaymentMethod paymentMethod,
+                                              LocalDateTime startDate, LocalDateTime endDate) {
+        return Specification.where(hasStatus(status))
+                .and(hasPaymentMethod(paymentMethod))
+                .and(createdFrom(startDate))
+                .and(createdTo(endDate));
+    }
+
+    public static Specification<Order> hasStatus(Order.OrderStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Order> hasPaymentMethod(Order.PaymentMethod paymentMethod) {
+        return paymentMethod == null ? null : (root, query, cb) -> cb.equal(root.get("paymentMethod"), paymentMethod);
+    }
+
+    public static Specification<Order> createdFrom(LocalDateTime startDate) {
+        return startDate == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), startDate);
+    }
+
+    public static Specification<Order> createdTo(LocalDateTime endDate) {
+        return endDate == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), endDate);
+    }
+
+    // Keyset cursor for newest-first paging: rows strictly after (beforeDate, beforeId) in (created_at DESC, id DESC)
+    public static Specification<Order> before(LocalDateTime beforeDate, Long beforeId) {
+        if (beforeDate == null) {
+            return null;
+        }
+        long id = beforeId != null ? beforeId : Long.MAX_VALUE;
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), beforeDate),
+                cb.and(cb.equal(root.get("createdAt"), beforeDate), cb.lessThan(root.get("id"), id)));
+    }
+}
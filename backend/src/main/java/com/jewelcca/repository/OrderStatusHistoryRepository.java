@@ -0,0 +1,28 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.OrderStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
+    List<OrderStatusHistory> findByOrderIdOrderByChangedAtAscIdAsc(Long orderId);
+
+    // One INSERT ... SELECT for a whole bulk transition instead of a row-by-row save
+    @Modifying
+    @Query(value = "INSERT INTO order_status_history (order_id, from_status, to_status, changed_by, changed_at) " +
+            "SELECT o.id, :fromStatus, :toStatus, :changedBy, :changedAt FROM orders o WHERE o.id IN (:orderIds)",
+            nativeQuery = true)
+    int recordTransitions(@Param("orderIds") Collection<Long> orderIds,
+                          @Param("fromStatus") String fromStatus,
+                          @Param("toStatus") String toStatus,
+                          @Param("changedBy") String changedBy,
+                          @Param("changedAt") LocalDateTime changedAt);
+}
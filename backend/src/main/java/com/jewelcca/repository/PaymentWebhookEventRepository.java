@@ -0,0 +1,60 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.PaymentWebhookEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, Long> {
+
+    // Gateway retries hit the unique event_id and are dropped by the database, no lookup first
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO payment_webhook_events (event_id, event_type, gateway_order_id, payload, status, attempts, received_at) " +
+            "VALUES (:eventId, :eventType, :gatewayOrderId, :payload, 'RECEIVED', 0, :receivedAt) " +
+            "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId,
+                       @Param("eventType") String eventType,
+                       @Param("gatewayOrderId") String gatewayOrderId,
+                       @Param("payload") String payload,
+                       @Param("receivedAt") LocalDateTime receivedAt);
+
+    // SKIP LOCKED lets several nodes drain the inbox without handing out the same events twice
+    @Query(value = "SELECT id FROM payment_webhook_events " +
+            "WHERE status = 'RECEIVED' OR (status = 'PROCESSING' AND claimed_at < :staleBefore) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockPendingIds(@Param("staleBefore") LocalDateTime staleBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.status = :status, e.claimedAt = :now WHERE e.id IN :ids")
+    int markClaimed(@Param("ids") Collection<Long> ids,
+                    @Param("status") PaymentWebhookEvent.Status status,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.status = :status, e.processedAt = :now WHERE e.id = :id")
+    int markCompleted(@Param("id") Long id,
+                      @Param("status") PaymentWebhookEvent.Status status,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.status = :status, e.attempts = :attempts, e.lastError = :error WHERE e.id = :id")
+    int markAttemptFailed(@Param("id") Long id,
+                          @Param("status") PaymentWebhookEvent.Status status,
+                          @Param("attempts") int attempts,
+                          @Param("error") String error);
+
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.status = :status WHERE e.id IN :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") PaymentWebhookEvent.Status status);
+
+    List<PaymentWebhookEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+}
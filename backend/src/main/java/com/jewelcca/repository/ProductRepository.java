@@ -1,15 +1,22 @@
 package com.jewelcca.repository;
 
+import com.jewelcca.dto.RatingSummary;
 import com.jewelcca.entity.Product;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -29,8 +36,85 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findTop8ByOrderByCreatedAtDesc();
     List<Product> findTop8ByOrderByRatingDesc();
     
-    // Admin queries
-    List<Product> findByStockQuantityLessThan(Integer quantity);
-    long countByInStockTrue();
-    long countByInStockFalse();
-}
\ No newline at end of file
+    // Admin queries. Low stock is below the category's threshold, or :defaultThreshold when it has none;
+    // :maxThreshold (the highest threshold in use) bounds the scan to a range of the stock_quantity index
+    @Query(value = "SELECT p FROM Product p LEFT JOIN p.category c WHERE p.stockQuantity < :maxThreshold " +
+            "AND p.stockQuantity < COALESCE(c.lowStockThreshold, :defaultThreshold) ORDER BY p.stockQuantity ASC, p.id ASC",
+            countQuery = "SELECT COUNT(p) FROM Product p LEFT JOIN p.category c WHERE p.stockQuantity < :maxThreshold " +
+            "AND p.stockQuantity < COALESCE(c.lowStockThreshold, :defaultThreshold)")
+    Page<Product> findLowStock(@Param("defaultThreshold") int defaultThreshold,
+                               @Param("maxThreshold") int maxThreshold,
+                               Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Product p LEFT JOIN p.category c WHERE p.stockQuantity < :maxThreshold " +
+            "AND p.stockQuantity < COALESCE(c.lowStockThreshold, :defaultThreshold)")
+    long countLowStock(@Param("defaultThreshold") int defaultThreshold, @Param("maxThreshold") int maxThreshold);
+
+    // (category id, category name, threshold, products, in stock, low stock, inventory value) per category
+    @Query("SELECT c.id, c.name, c.lowStockThreshold, COUNT(p), " +
+            "SUM(CASE WHEN p.inStock = true THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN p.stockQuantity < COALESCE(c.lowStockThreshold, :defaultThreshold) THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(p.price * p.stockQuantity), 0) " +
+            "FROM Product p LEFT JOIN p.category c GROUP BY c.id, c.name, c.lowStockThreshold ORDER BY c.name")
+    List<Object[]> summarizeInventoryByCategory(@Param("defaultThreshold") int defaultThreshold);
+
+    // Rating aggregates
+    @Query("SELECT p.reviewCount FROM Product p WHERE p.id = :productId")
+    Optional<Integer> findReviewCountById(@Param("productId") Long productId);
+
+    @Query("SELECT new com.jewelcca.dto.RatingSummary(p.id, p.rating, p.reviewCount, " +
+            "p.rating1Count, p.rating2Count, p.rating3Count, p.rating4Count, p.rating5Count) FROM Product p WHERE p.id = :productId")
+    Optional<RatingSummary> findRatingSummary(@Param("productId") Long productId);
+
+    // SET expressions all read the pre-update row, so the derived rating uses the new sum and count
+    @Modifying
+    @Query(value = "UPDATE products SET rating_sum = rating_sum + :sumDelta, review_count = review_count + :countDelta, " +
+            "rating_1_count = rating_1_count + :oneDelta, rating_2_count = rating_2_count + :twoDelta, " +
+            "rating_3_count = rating_3_count + :threeDelta, rating_4_count = rating_4_count + :fourDelta, " +
+            "rating_5_count = rating_5_count + :fiveDelta, " +
+            "rating = CASE WHEN review_count + :countDelta > 0 " +
+            "THEN ROUND(CAST(rating_sum + :sumDelta AS numeric) / (review_count + :countDelta), 2) ELSE 0 END " +
+            "WHERE id = :productId", nativeQuery = true)
+    int applyRatingDelta(@Param("productId") Long productId,
+                         @Param("sumDelta") long sumDelta,
+                         @Param("countDelta") int countDelta,
+                         @Param("oneDelta") int oneDelta,
+                         @Param("twoDelta") int twoDelta,
+                         @Param("threeDelta") int threeDelta,
+                         @Param("fourDelta") int fourDelta,
+                         @Param("fiveDelta") int fiveDelta);
+
+    // Rows whose aggregates disagree with their own review count, e.g. products that predate the columns
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM products WHERE review_count IS DISTINCT FROM " +
+            "rating_1_count + rating_2_count + rating_3_count + rating_4_count + rating_5_count " +
+            "OR rating_sum IS DISTINCT FROM rating_1_count + 2 * rating_2_count + 3 * rating_3_count + " +
+            "4 * rating_4_count + 5 * rating_5_count)", nativeQuery = true)
+    boolean existsInconsistentRatingAggregates();
+
+    @Modifying
+    @Query(value = "UPDATE products p SET rating_sum = COALESCE(s.total, 0), review_count = COALESCE(s.cnt, 0), " +
+            "rating_1_count = COALESCE(s.r1, 0), rating_2_count = COALESCE(s.r2, 0), rating_3_count = COALESCE(s.r3, 0), " +
+            "rating_4_count = COALESCE(s.r4, 0), rating_5_count = COALESCE(s.r5, 0), " +
+            "rating = CASE WHEN COALESCE(s.cnt, 0) > 0 THEN ROUND(CAST(s.total AS numeric) / s.cnt, 2) ELSE 0 END " +
+            "FROM products p2 LEFT JOIN (SELECT product_id, SUM(rating) AS total, COUNT(*) AS cnt, " +
+            "COUNT(*) FILTER (WHERE rating = 1) AS r1, COUNT(*) FILTER (WHERE rating = 2) AS r2, " +
+            "COUNT(*) FILTER (WHERE rating = 3) AS r3, COUNT(*) FILTER (WHERE rating = 4) AS r4, " +
+            "COUNT(*) FILTER (WHERE rating = 5) AS r5 FROM reviews GROUP BY product_id) s ON s.product_id = p2.id " +
+            "WHERE p.id = p2.id", nativeQuery = true)
+    int rebuildRatingAggregates();
+
+    // Export rows in id order, read through a cursor
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT p.id, p.name, c.name, p.price, p.originalPrice, p.stockQuantity, p.inStock, p.rating, " +
+            "p.reviewCount, p.createdAt FROM Product p LEFT JOIN p.category c ORDER BY p.id")
+    Stream<Object[]> streamExportRows();
+
+    // (product id, name, stock quantity, low-stock threshold)
+    @Query("SELECT p.id, p.name, p.stockQuantity, COALESCE(c.lowStockThreshold, :defaultThreshold) " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<Object[]> findStockLevelsByIdIn(@Param("ids") Collection<Long> ids,
+                                         @Param("defaultThreshold") int defaultThreshold);
+}
@@ -1,11 +1,17 @@
 package com.jewelcca.repository;
 
+import com.jewelcca.dto.ReviewResponse;
 import com.jewelcca.entity.Review;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +19,23 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     Page<Review> findByProductId(Long productId, Pageable pageable);
     Optional<Review> findByProductIdAndUserId(Long productId, Long userId);
     boolean existsByProductIdAndUserId(Long productId, Long userId);
-}
\ No newline at end of file
+
+    // Flat rows with the reviewer joined in, nothing left to lazy-load during serialization
+    @Query("SELECT new com.jewelcca.dto.ReviewResponse(r.id, r.rating, r.comment, r.createdAt, r.verifiedPurchase, u.id, u.firstName, u.lastName) " +
+            "FROM Review r JOIN r.user u WHERE r.product.id = :productId")
+    List<ReviewResponse> findResponsesByProductId(@Param("productId") Long productId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Review r SET r.verifiedPurchase = true WHERE r.verifiedPurchase = false AND EXISTS (" +
+            "SELECT 1 FROM OrderItem i WHERE i.order.id IN :orderIds " +
+            "AND i.order.user.id = r.user.id AND i.product.id = r.product.id)")
+    int markVerifiedPurchasesForOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    // Backfill for reviews written before the flag existed
+    @Modifying
+    @Query(value = "UPDATE reviews r SET verified_purchase = true WHERE r.verified_purchase = false AND EXISTS (" +
+            "SELECT 1 FROM order_items i JOIN orders o ON o.id = i.order_id " +
+            "WHERE o.status = 'DELIVERED' AND o.user_id = r.user_id AND i.product_id = r.product_id)",
+            nativeQuery = true)
+    int markAllVerifiedPurchases();
+}
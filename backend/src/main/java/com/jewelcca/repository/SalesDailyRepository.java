@@ -0,0 +1,47 @@
+package com.jewelcca.repository;
+
+import com.jewelcca.entity.SalesDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SalesDailyRepository extends JpaRepository<SalesDaily, LocalDate> {
+    List<SalesDaily> findBySalesDateGreaterThanEqualOrderBySalesDateAsc(LocalDate from);
+
+    // Adds (sign = 1) or removes (sign = -1) the given orders' totals on their creation dates
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily (sales_date, order_count, revenue, units) " +
+            "SELECT CAST(o.created_at AS date), :sign * COUNT(*), :sign * COALESCE(SUM(o.total_amount), 0), " +
+            ":sign * COALESCE(SUM(u.units), 0) " +
+            "FROM orders o LEFT JOIN (SELECT order_id, SUM(quantity) AS units FROM order_items " +
+            "WHERE order_id IN (:orderIds) GROUP BY order_id) u ON u.order_id = o.id " +
+            "WHERE o.id IN (:orderIds) GROUP BY CAST(o.created_at AS date) " +
+            "ON CONFLICT (sales_date) DO UPDATE SET order_count = sales_daily.order_count + EXCLUDED.order_count, " +
+            "revenue = sales_daily.revenue + EXCLUDED.revenue, units = sales_daily.units + EXCLUDED.units",
+            nativeQuery = true)
+    int applyDelta(@Param("orderIds") Collection<Long> orderIds, @Param("sign") int sign);
+
+    // Waits for in-flight deltas and holds new ones back until the rebuild commits
+    @Modifying
+    @Query(value = "LOCK TABLE sales_daily IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily (sales_date, order_count, revenue, units) " +
+            "SELECT CAST(o.created_at AS date), COUNT(*), COALESCE(SUM(o.total_amount), 0), COALESCE(SUM(u.units), 0) " +
+            "FROM orders o LEFT JOIN (SELECT order_id, SUM(quantity) AS units FROM order_items GROUP BY order_id) u " +
+            "ON u.order_id = o.id WHERE o.status = 'DELIVERED' GROUP BY CAST(o.created_at AS date)",
+            nativeQuery = true)
+    int backfillFromDeliveredOrders();
+}
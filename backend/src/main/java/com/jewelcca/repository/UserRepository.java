@@ -1,13 +1,17 @@
 package com.jewelcca.repository;
 
 import com.jewelcca.entity.User;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -16,8 +20,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByResetToken(String resetToken);
     
     // Admin queries
-    Page<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+    Slice<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
             String firstName, String lastName, String email, Pageable pageable);
     long countByRole(User.Role role);
     long countByRoleAndCreatedAtAfter(User.Role role, LocalDateTime date);
+
+    // Export rows in id order, read through a cursor
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT u.id, u.firstName, u.lastName, u.email, u.phone, u.role, u.enabled, u.createdAt " +
+            "FROM User u ORDER BY u.id")
+    Stream<Object[]> streamExportRows();
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.jewelcca.repository;
 
 import com.jewelcca.entity.WishlistItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +16,13 @@ public interface WishlistItemRepository extends JpaRepository<WishlistItem, Long
     Optional<WishlistItem> findByUserIdAndProductId(Long userId, Long productId);
     void deleteByUserIdAndProductId(Long userId, Long productId);
     boolean existsByUserIdAndProductId(Long userId, Long productId);
+
+    @Query("SELECT w.product.id FROM WishlistItem w WHERE w.user.id = :userId")
+    List<Long> findProductIdsByUserId(@Param("userId") Long userId);
+
+    // Keyset page of (wishlistItemId, userId) for one product
+    @Query("SELECT w.id, w.user.id FROM WishlistItem w WHERE w.product.id = :productId AND w.id > :afterId ORDER BY w.id")
+    List<Object[]> findUserIdsByProductIdAfter(@Param("productId") Long productId,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.jewelcca.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewelcca.event.StoreActivityEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes store activity to connected admins over server-sent events. Committed activity is
+ * serialized once and offered to every connection's small bounded queue; a connection's queue is
+ * drained by one task at a time on the SSE executor, so a slow client only ever holds up itself.
+ * A client whose queue is full has fallen too far behind and is disconnected; events are not
+ * replayed, so the admin client reconnects with backoff and refetches recent orders and low stock
+ * instead. Heartbeats go through the same queues so dead connections are found.
+ */
+@Service
+public class AdminEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminEventBroadcaster.class);
+
+    @Value("${admin.events.buffer-size}")
+    private int bufferSize;
+
+    @Value("${admin.events.timeout-ms}")
+    private long timeoutMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("sseExecutor")
+    private ThreadPoolTaskExecutor sseExecutor;
+
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SseEmitter subscribe() {
+        Connection connection = new Connection(new SseEmitter(timeoutMs), new ArrayBlockingQueue<>(bufferSize));
+        connection.emitter.onCompletion(() -> connections.remove(connection));
+        connection.emitter.onTimeout(() -> disconnect(connection));
+        connection.emitter.onError(error -> disconnect(connection));
+        connections.add(connection);
+        offer(connection, new Message(null, null, "connected"));
+        return connection.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(StoreActivityEvent event) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event.getData());
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} event", event.getType(), e);
+            return;
+        }
+        Message message = new Message(String.valueOf(sequence.incrementAndGet()), event.getType().name(), json);
+        for (Connection connection : connections) {
+            offer(connection, message);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${admin.events.heartbeat-ms}")
+    public void heartbeat() {
+        Message heartbeat = new Message(null, null, null);
+        for (Connection connection : connections) {
+            offer(connection, heartbeat);
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    private void offer(Connection connection, Message message) {
+        if (!connection.queue.offer(message)) {
+            log.info("Dropping a slow admin event stream after {} undelivered events", bufferSize);
+            disconnect(connection);
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sseExecutor.execute(() -> drain(connection));
+        } catch (RuntimeException e) {
+            connection.draining.set(false);
+            disconnect(connection);
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            Message message;
+            while ((message = connection.queue.poll()) != null) {
+                connection.emitter.send(message.toEvent());
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            disconnect(connection);
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        // Something may have been queued after the last poll but before the flag was cleared
+        if (!connection.queue.isEmpty()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        if (connections.remove(connection)) {
+            connection.queue.clear();
+            connection.emitter.complete();
+        }
+    }
+
+    private static final class Connection {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Connection(SseEmitter emitter, BlockingQueue<Message> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+
+    // An event, or a heartbeat comment when it has no data
+    private static final class Message {
+        private final String id;
+        private final String name;
+        private final String data;
+
+        private Message(String id, String name, String data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            if (data == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().data(data);
+            if (id != null) {
+                event.id(id);
+            }
+            if (name != null) {
+                event.name(name);
+            }
+            return event;
+        }
+    }
+}
@@ -1,20 +1,39 @@
 package com.jewelcca.service;
 
+import com.jewelcca.dto.OrderFeedResponse;
 import com.jewelcca.entity.Order;
 import com.jewelcca.entity.Product;
 import com.jewelcca.entity.User;
+import com.jewelcca.event.ProductChangeEvent;
 import com.jewelcca.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +42,9 @@ public class AdminService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserSearchService userSearchService;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -35,71 +57,142 @@ public class AdminService {
     @Autowired
     private ReviewRepository reviewRepository;
 
-    public Map<String, Object> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private AnalyticsCache analyticsCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    @Qualifier("dashboardExecutor")
+    private ThreadPoolTaskExecutor dashboardExecutor;
+
+    @Value("${admin.dashboard.query-timeout-ms}")
+    private long dashboardQueryTimeoutMs;
+
+    @Value("${inventory.low-stock-threshold}")
+    private int defaultLowStockThreshold;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    // Lower bound for analytics queried without a start date
+    private static final LocalDateTime ANALYTICS_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private static final String DASHBOARD_STATS_KEY = "dashboard-stats";
+
+    private static final DateTimeFormatter DAY_KEY = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter MONTH_KEY = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // Runs out with the dashboard deadline so abandoned queries are cancelled by the database too
+        readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(dashboardQueryTimeoutMs + 999)));
+    }
+
+    public AnalyticsCache.Result<Map<String, Object>> getDashboardStats() {
+        AnalyticsCache.Result<Map<String, Object>> result = analyticsCache.get(DASHBOARD_STATS_KEY, this::computeDashboardStats);
+        // A partial result is served once but not kept for the whole TTL
+        if (Boolean.TRUE.equals(result.getValue().get("partial"))) {
+            analyticsCache.invalidate(DASHBOARD_STATS_KEY, result);
+        }
+        return result;
+    }
+
+    /**
+     * The stats are independent single-value queries, so they run concurrently on the dashboard
+     * executor, each in its own read-only transaction, and the response waits for the slowest one
+     * up to a shared deadline. Queries still running at the deadline are cancelled and listed in
+     * "timedOut"; the response is then marked "partial" and leaves their figures out.
+     */
+    private Map<String, Object> computeDashboardStats() {
+        LocalDateTime startOfMonth = startOfCurrentMonth();
+        Map<String, Future<Object>> queries = new LinkedHashMap<>();
         
         // Basic counts
-        stats.put("totalUsers", userRepository.count());
-        stats.put("totalOrders", orderRepository.count());
-        stats.put("totalProducts", productRepository.count());
-        stats.put("totalCategories", categoryRepository.count());
+        queries.put("totalUsers", submitReadOnly(userRepository::count));
+        queries.put("totalOrders", submitReadOnly(orderRepository::count));
+        queries.put("totalProducts", submitReadOnly(productRepository::count));
+        queries.put("totalCategories", submitReadOnly(categoryRepository::count));
         
         // Revenue calculations
-        List<Order> completedOrders = orderRepository.findByStatus(Order.OrderStatus.DELIVERED);
-        BigDecimal totalRevenue = completedOrders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.put("totalRevenue", totalRevenue);
-        
-        // This month's stats
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        List<Order> thisMonthOrders = orderRepository.findByCreatedAtAfter(startOfMonth);
-        stats.put("thisMonthOrders", thisMonthOrders.size());
+        queries.put("totalRevenue", submitReadOnly(() -> orderRepository.sumTotalAmountByStatus(Order.OrderStatus.DELIVERED)));
         
-        BigDecimal thisMonthRevenue = thisMonthOrders.stream()
-                .filter(order -> order.getStatus() == Order.OrderStatus.DELIVERED)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.put("thisMonthRevenue", thisMonthRevenue);
+        // This month's stats, and the whole of last month for growth
+        queries.put("thisMonthOrders", submitReadOnly(() -> orderRepository.countByCreatedAtGreaterThanEqual(startOfMonth)));
+        queries.put("thisMonthRevenue", submitReadOnly(() ->
+                orderRepository.sumTotalAmountByStatusAndCreatedAtFrom(Order.OrderStatus.DELIVERED, startOfMonth)));
+        queries.put("lastMonthOrders", submitReadOnly(() ->
+                orderRepository.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(startOfMonth.minusMonths(1), startOfMonth)));
         
-        // Growth calculations (compared to last month)
-        LocalDateTime lastMonthStart = startOfMonth.minusMonths(1);
-        LocalDateTime lastMonthEnd = startOfMonth.minusDays(1);
-        List<Order> lastMonthOrders = orderRepository.findByCreatedAtBetween(lastMonthStart, lastMonthEnd);
+        // Low stock and pending orders
+        queries.put("lowStockCount", submitReadOnly(() ->
+                productRepository.countLowStock(defaultLowStockThreshold, maxLowStockThreshold())));
+        queries.put("pendingOrders", submitReadOnly(() -> orderRepository.countByStatus(Order.OrderStatus.PENDING)));
         
-        double orderGrowth = lastMonthOrders.isEmpty() ? 100.0 : 
-                ((double)(thisMonthOrders.size() - lastMonthOrders.size()) / lastMonthOrders.size()) * 100;
-        stats.put("orderGrowth", Math.round(orderGrowth * 100.0) / 100.0);
-        
-        // Low stock products
-        List<Product> lowStockProducts = productRepository.findByStockQuantityLessThan(10);
-        stats.put("lowStockCount", lowStockProducts.size());
+        Map<String, Object> stats = new HashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(dashboardQueryTimeoutMs);
+        for (Map.Entry<String, Future<Object>> query : queries.entrySet()) {
+            try {
+                stats.put(query.getKey(), query.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                query.getValue().cancel(true);
+                timedOut.add(query.getKey());
+            } catch (ExecutionException e) {
+                queries.values().forEach(future -> future.cancel(true));
+                throw new RuntimeException("Dashboard query '" + query.getKey() + "' failed", e.getCause());
+            } catch (InterruptedException e) {
+                queries.values().forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while loading dashboard stats", e);
+            }
+        }
         
-        // Pending orders
-        long pendingOrders = orderRepository.countByStatus(Order.OrderStatus.PENDING);
-        stats.put("pendingOrders", pendingOrders);
+        // Growth calculations (compared to the whole of last month)
+        Long thisMonthOrders = (Long) stats.get("thisMonthOrders");
+        Long lastMonthOrders = (Long) stats.remove("lastMonthOrders");
+        if (thisMonthOrders != null && lastMonthOrders != null) {
+            double orderGrowth = lastMonthOrders == 0 ? 100.0 :
+                    ((double)(thisMonthOrders - lastMonthOrders) / lastMonthOrders) * 100;
+            stats.put("orderGrowth", Math.round(orderGrowth * 100.0) / 100.0);
+        }
         
+        stats.put("partial", !timedOut.isEmpty());
+        stats.put("timedOut", timedOut);
         return stats;
     }
 
-    public List<Map<String, Object>> getSalesChartData(int days) {
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
-        List<Order> orders = orderRepository.findByCreatedAtAfterAndStatus(startDate, Order.OrderStatus.DELIVERED);
-        
+    private Future<Object> submitReadOnly(Supplier<Object> query) {
+        return dashboardExecutor.submit(() -> readOnlyTransaction.execute(status -> query.get()));
+    }
+
+    public AnalyticsCache.Result<List<Map<String, Object>>> getSalesChartData(int days) {
+        return analyticsCache.get("sales-chart:" + days, () -> computeSalesChartData(days));
+    }
+
+    private List<Map<String, Object>> computeSalesChartData(int days) {
+        LocalDate firstDay = LocalDate.now().minusDays(days - 1L);
         Map<String, BigDecimal> dailySales = new LinkedHashMap<>();
         
         // Initialize all days with 0
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDateTime date = LocalDateTime.now().minusDays(i);
-            String dateKey = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            dailySales.put(dateKey, BigDecimal.ZERO);
+        for (LocalDate day = firstDay; !day.isAfter(LocalDate.now()); day = day.plusDays(1)) {
+            dailySales.put(day.format(DAY_KEY), BigDecimal.ZERO);
         }
         
-        // Aggregate sales by date
-        orders.forEach(order -> {
-            String dateKey = order.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            dailySales.merge(dateKey, order.getTotalAmount(), BigDecimal::add);
-        });
+        // One rollup row per day with sales
+        salesRollupService.getDailySales(firstDay)
+                .forEach(row -> dailySales.put(row.getSalesDate().format(DAY_KEY), row.getRevenue()));
         
         return dailySales.entrySet().stream()
                 .map(entry -> {
@@ -111,27 +204,19 @@ public class AdminService {
                 .collect(Collectors.toList());
     }
 
-    public List<Map<String, Object>> getCategorySalesData() {
-        List<Order> deliveredOrders = orderRepository.findByStatus(Order.OrderStatus.DELIVERED);
-        Map<String, BigDecimal> categorySales = new HashMap<>();
-        
-        deliveredOrders.forEach(order -> {
-            order.getOrderItems().forEach(item -> {
-                String categoryName = item.getProduct().getCategory().getName();
-                BigDecimal itemTotal = item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-                categorySales.merge(categoryName, itemTotal, BigDecimal::add);
-            });
-        });
-        
-        return categorySales.entrySet().stream()
-                .map(entry -> {
-                    Map<String, Object> data = new HashMap<>();
-                    data.put("category", entry.getKey());
-                    data.put("sales", entry.getValue());
-                    return data;
-                })
-                .sorted((a, b) -> ((BigDecimal)b.get("sales")).compareTo((BigDecimal)a.get("sales")))
-                .collect(Collectors.toList());
+    public AnalyticsCache.Result<List<Map<String, Object>>> getCategorySalesData(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime from = startDate != null ? startDate : ANALYTICS_EPOCH;
+        LocalDateTime to = endDate != null ? endDate : LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        
+        return analyticsCache.get("category-sales:" + from + ":" + to, () ->
+                orderItemRepository.sumSalesByCategory(Order.OrderStatus.DELIVERED, from, to).stream()
+                        .map(row -> {
+                            Map<String, Object> data = new HashMap<>();
+                            data.put("category", row[0]);
+                            data.put("sales", row[1]);
+                            return data;
+                        })
+                        .collect(Collectors.toList()));
     }
 
     public List<Order> getRecentOrders() {
@@ -139,52 +224,40 @@ public class AdminService {
         return orderRepository.findAll(pageable).getContent();
     }
 
-    public List<Map<String, Object>> getTopSellingProducts() {
-        List<Order> deliveredOrders = orderRepository.findByStatus(Order.OrderStatus.DELIVERED);
-        Map<Long, Integer> productSales = new HashMap<>();
-        Map<Long, Product> productMap = new HashMap<>();
-        
-        deliveredOrders.forEach(order -> {
-            order.getOrderItems().forEach(item -> {
-                Long productId = item.getProduct().getId();
-                productSales.merge(productId, item.getQuantity(), Integer::sum);
-                productMap.put(productId, item.getProduct());
-            });
-        });
-        
-        return productSales.entrySet().stream()
-                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
-                .limit(10)
-                .map(entry -> {
-                    Map<String, Object> data = new HashMap<>();
-                    Product product = productMap.get(entry.getKey());
-                    data.put("productId", entry.getKey());
-                    data.put("productName", product.getName());
-                    data.put("quantitySold", entry.getValue());
-                    data.put("revenue", product.getPrice().multiply(BigDecimal.valueOf(entry.getValue())));
-                    return data;
-                })
-                .collect(Collectors.toList());
+    public AnalyticsCache.Result<List<Map<String, Object>>> getTopSellingProducts(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime from = startDate != null ? startDate : ANALYTICS_EPOCH;
+        LocalDateTime to = endDate != null ? endDate : LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        
+        // Revenue is what customers actually paid (OrderItem.price), not today's price
+        return analyticsCache.get("top-products:" + from + ":" + to, () ->
+                orderItemRepository.findTopSellingProducts(Order.OrderStatus.DELIVERED, from, to, PageRequest.of(0, 10)).stream()
+                        .map(row -> {
+                            Map<String, Object> data = new HashMap<>();
+                            data.put("productId", row[0]);
+                            data.put("productName", row[1]);
+                            data.put("quantitySold", row[2]);
+                            data.put("revenue", row[3]);
+                            return data;
+                        })
+                        .collect(Collectors.toList()));
     }
 
-    public List<Map<String, Object>> getRevenueChartData(int months) {
-        LocalDateTime startDate = LocalDateTime.now().minusMonths(months);
-        List<Order> orders = orderRepository.findByCreatedAtAfterAndStatus(startDate, Order.OrderStatus.DELIVERED);
-        
+    public AnalyticsCache.Result<List<Map<String, Object>>> getRevenueChartData(int months) {
+        return analyticsCache.get("revenue-chart:" + months, () -> computeRevenueChartData(months));
+    }
+
+    private List<Map<String, Object>> computeRevenueChartData(int months) {
+        YearMonth firstMonth = YearMonth.now().minusMonths(months - 1L);
         Map<String, BigDecimal> monthlyRevenue = new LinkedHashMap<>();
         
         // Initialize all months with 0
-        for (int i = months - 1; i >= 0; i--) {
-            LocalDateTime date = LocalDateTime.now().minusMonths(i);
-            String monthKey = date.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            monthlyRevenue.put(monthKey, BigDecimal.ZERO);
+        for (YearMonth month = firstMonth; !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+            monthlyRevenue.put(month.format(MONTH_KEY), BigDecimal.ZERO);
         }
         
-        // Aggregate revenue by month
-        orders.forEach(order -> {
-            String monthKey = order.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            monthlyRevenue.merge(monthKey, order.getTotalAmount(), BigDecimal::add);
-        });
+        // Fold the daily rollup rows into months
+        salesRollupService.getDailySales(firstMonth.atDay(1))
+                .forEach(row -> monthlyRevenue.merge(row.getSalesDate().format(MONTH_KEY), row.getRevenue(), BigDecimal::add));
         
         return monthlyRevenue.entrySet().stream()
                 .map(entry -> {
@@ -196,14 +269,17 @@ public class AdminService {
                 .collect(Collectors.toList());
     }
 
+    public int rebuildSalesRollup() {
+        return salesRollupService.rebuild();
+    }
+
     // User Management
     public Page<User> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable);
     }
 
-    public Page<User> searchUsers(String keyword, Pageable pageable) {
-        return userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                keyword, keyword, keyword, pageable);
+    public Slice<User> searchUsers(String keyword, Pageable pageable) {
+        return userSearchService.search(keyword, pageable);
     }
 
     public User updateUserStatus(Long userId, Boolean enabled) {
@@ -229,11 +305,22 @@ public class AdminService {
         return orderRepository.findByOrderNumberContainingIgnoreCase(keyword, pageable);
     }
 
-    public Page<Order> filterOrders(String status, String paymentMethod, 
+    public Page<Order> filterOrders(Order.OrderStatus status, Order.PaymentMethod paymentMethod,
                                    LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
-        // This would require a custom repository method with Criteria API or @Query
-        // For simplicity, returning all orders here
-        return orderRepository.findAll(pageable);
+        return orderRepository.findAll(OrderSpecifications.filter(status, paymentMethod, startDate, endDate), pageable);
+    }
+
+    // Newest first, continuing after (beforeDate, beforeId); no offset or count, so deep pages stay cheap
+    public OrderFeedResponse filterOrdersFeed(Order.OrderStatus status, Order.PaymentMethod paymentMethod,
+                                              LocalDateTime startDate, LocalDateTime endDate,
+                                              LocalDateTime beforeDate, Long beforeId, int size) {
+        Specification<Order> spec = OrderSpecifications.filter(status, paymentMethod, startDate, endDate)
+                .and(OrderSpecifications.before(beforeDate, beforeId));
+        List<Order> orders = orderRepository.findSlice(spec,
+                Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")), size + 1);
+
+        boolean hasMore = orders.size() > size;
+        return new OrderFeedResponse(hasMore ? orders.subList(0, size) : orders, hasMore);
     }
 
     // Product Management
@@ -241,45 +328,56 @@ public class AdminService {
         return productRepository.findAll(pageable);
     }
 
-    public List<Product> getLowStockProducts() {
-        return productRepository.findByStockQuantityLessThan(10);
+    public Page<Product> getLowStockProducts(Pageable pageable) {
+        return productRepository.findLowStock(defaultLowStockThreshold, maxLowStockThreshold(), pageable);
+    }
+
+    private int maxLowStockThreshold() {
+        return Math.max(defaultLowStockThreshold, categoryRepository.findMaxLowStockThreshold());
     }
 
     public Product updateProductStock(Long productId, Integer stock) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
+        boolean wasInStock = product.isInStock();
+        int previousStock = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
         product.setStockQuantity(stock);
         product.setInStock(stock > 0);
-        return productRepository.save(product);
+        product = productRepository.save(product);
+
+        if (!wasInStock && product.isInStock()) {
+            eventPublisher.publishEvent(ProductChangeEvent.backInStock(product.getId(), product.getPrice()));
+        }
+        if (stock < previousStock) {
+            productService.publishLowStockCrossings(Map.of(product.getId(), previousStock - stock));
+        }
+        return product;
     }
 
     // Analytics
-    public Map<String, Object> getCustomerInsights() {
+    public AnalyticsCache.Result<Map<String, Object>> getCustomerInsights() {
+        return analyticsCache.get("customer-insights", this::computeCustomerInsights);
+    }
+
+    private Map<String, Object> computeCustomerInsights() {
         Map<String, Object> insights = new HashMap<>();
         
         long totalCustomers = userRepository.countByRole(User.Role.USER);
         insights.put("totalCustomers", totalCustomers);
         
         // New customers this month
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+        LocalDateTime startOfMonth = startOfCurrentMonth();
         long newCustomersThisMonth = userRepository.countByRoleAndCreatedAtAfter(User.Role.USER, startOfMonth);
         insights.put("newCustomersThisMonth", newCustomersThisMonth);
         
         // Repeat customers (customers with more than 1 order)
-        List<Object[]> customerOrderCounts = orderRepository.findCustomerOrderCounts();
-        long repeatCustomers = customerOrderCounts.stream()
-                .mapToLong(row -> (Long) row[1])
-                .filter(count -> count > 1)
-                .count();
-        insights.put("repeatCustomers", repeatCustomers);
+        insights.put("repeatCustomers", orderRepository.countRepeatCustomers());
         
         // Average order value
-        List<Order> deliveredOrders = orderRepository.findByStatus(Order.OrderStatus.DELIVERED);
-        if (!deliveredOrders.isEmpty()) {
-            BigDecimal totalRevenue = deliveredOrders.stream()
-                    .map(Order::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal avgOrderValue = totalRevenue.divide(BigDecimal.valueOf(deliveredOrders.size()), 2, BigDecimal.ROUND_HALF_UP);
+        long deliveredOrders = orderRepository.countByStatus(Order.OrderStatus.DELIVERED);
+        if (deliveredOrders > 0) {
+            BigDecimal totalRevenue = orderRepository.sumTotalAmountByStatus(Order.OrderStatus.DELIVERED);
+            BigDecimal avgOrderValue = totalRevenue.divide(BigDecimal.valueOf(deliveredOrders), 2, RoundingMode.HALF_UP);
             insights.put("averageOrderValue", avgOrderValue);
         } else {
             insights.put("averageOrderValue", BigDecimal.ZERO);
@@ -288,28 +386,48 @@ public class AdminService {
         return insights;
     }
 
-    public Map<String, Object> getInventoryReport() {
-        Map<String, Object> report = new HashMap<>();
+    public AnalyticsCache.Result<Map<String, Object>> getInventoryReport() {
+        return analyticsCache.get("inventory-report", this::computeInventoryReport);
+    }
+
+    private Map<String, Object> computeInventoryReport() {
+        long totalProducts = 0;
+        long inStockProducts = 0;
+        long lowStockProducts = 0;
+        BigDecimal totalInventoryValue = BigDecimal.ZERO;
+        List<Map<String, Object>> byCategory = new ArrayList<>();
+        
+        // One aggregate row per category; the totals are their sums
+        for (Object[] row : productRepository.summarizeInventoryByCategory(defaultLowStockThreshold)) {
+            long products = (Long) row[3];
+            long inStock = (Long) row[4];
+            long lowStock = (Long) row[5];
+            BigDecimal value = (BigDecimal) row[6];
+            
+            Map<String, Object> category = new HashMap<>();
+            category.put("categoryId", row[0]);
+            category.put("category", row[1] != null ? row[1] : "Uncategorized");
+            category.put("lowStockThreshold", row[2] != null ? row[2] : defaultLowStockThreshold);
+            category.put("totalProducts", products);
+            category.put("inStockProducts", inStock);
+            category.put("outOfStockProducts", products - inStock);
+            category.put("lowStockProducts", lowStock);
+            category.put("inventoryValue", value);
+            byCategory.add(category);
+            
+            totalProducts += products;
+            inStockProducts += inStock;
+            lowStockProducts += lowStock;
+            totalInventoryValue = totalInventoryValue.add(value);
+        }
         
-        long totalProducts = productRepository.count();
+        Map<String, Object> report = new HashMap<>();
         report.put("totalProducts", totalProducts);
-        
-        long inStockProducts = productRepository.countByInStockTrue();
         report.put("inStockProducts", inStockProducts);
-        
-        long outOfStockProducts = productRepository.countByInStockFalse();
-        report.put("outOfStockProducts", outOfStockProducts);
-        
-        List<Product> lowStockProducts = productRepository.findByStockQuantityLessThan(10);
-        report.put("lowStockProducts", lowStockProducts.size());
-        
-        // Total inventory value
-        List<Product> allProducts = productRepository.findAll();
-        BigDecimal totalInventoryValue = allProducts.stream()
-                .map(product -> product.getPrice().multiply(BigDecimal.valueOf(product.getStockQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        report.put("outOfStockProducts", totalProducts - inStockProducts);
+        report.put("lowStockProducts", lowStockProducts);
         report.put("totalInventoryValue", totalInventoryValue);
-        
+        report.put("byCategory", byCategory);
         return report;
     }
 
@@ -317,31 +435,31 @@ public class AdminService {
         Map<String, Object> summary = new HashMap<>();
         
         if (startDate == null) {
-            startDate = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+            startDate = startOfCurrentMonth();
         }
         if (endDate == null) {
             endDate = LocalDateTime.now();
         }
         
-        List<Order> ordersInPeriod = orderRepository.findByCreatedAtBetween(startDate, endDate);
-        
-        BigDecimal totalRevenue = ordersInPeriod.stream()
-                .filter(order -> order.getStatus() == Order.OrderStatus.DELIVERED)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // One GROUP BY status row per status instead of loading the period's orders
+        long totalOrders = 0;
+        long completedOrders = 0;
+        long cancelledOrders = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (Object[] row : orderRepository.summarizeByStatusBetween(startDate, endDate)) {
+            Order.OrderStatus status = (Order.OrderStatus) row[0];
+            long count = (Long) row[1];
+            totalOrders += count;
+            if (status == Order.OrderStatus.DELIVERED) {
+                completedOrders = count;
+                totalRevenue = (BigDecimal) row[2];
+            } else if (status == Order.OrderStatus.CANCELLED) {
+                cancelledOrders = count;
+            }
+        }
         summary.put("totalRevenue", totalRevenue);
-        
-        long totalOrders = ordersInPeriod.size();
         summary.put("totalOrders", totalOrders);
-        
-        long completedOrders = ordersInPeriod.stream()
-                .mapToLong(order -> order.getStatus() == Order.OrderStatus.DELIVERED ? 1 : 0)
-                .sum();
         summary.put("completedOrders", completedOrders);
-        
-        long cancelledOrders = ordersInPeriod.stream()
-                .mapToLong(order -> order.getStatus() == Order.OrderStatus.CANCELLED ? 1 : 0)
-                .sum();
         summary.put("cancelledOrders", cancelledOrders);
         
         if (totalOrders > 0) {
@@ -353,4 +471,8 @@ public class AdminService {
         
         return summary;
     }
-}
\ No newline at end of file
+
+    private static LocalDateTime startOfCurrentMonth() {
+        return LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    }
+}
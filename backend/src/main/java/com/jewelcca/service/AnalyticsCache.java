@@ -0,0 +1,146 @@
+package com.jewelcca.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache for admin analytics. Each key holds one future: concurrent misses
+ * wait on the same future, so a value is computed once however many admins open the dashboard.
+ * Past the soft TTL the last value is still served while a single background refresh on the
+ * analytics executor replaces it; past the hard TTL it is too old to show and callers wait for a
+ * fresh computation instead. Every value carries the instant it was computed at.
+ */
+@Component
+public class AnalyticsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsCache.class);
+
+    @Value("${admin.analytics.soft-ttl-seconds}")
+    private long softTtlSeconds;
+
+    @Value("${admin.analytics.hard-ttl-seconds}")
+    private long hardTtlSeconds;
+
+    @Autowired
+    @Qualifier("analyticsExecutor")
+    private ThreadPoolTaskExecutor analyticsExecutor;
+
+    private final Map<String, CompletableFuture<Result<?>>> entries = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> get(String key, Supplier<T> loader) {
+        while (true) {
+            CompletableFuture<Result<?>> current = entries.get(key);
+
+            if (current == null || isExpired(current, Duration.ofSeconds(hardTtlSeconds))) {
+                CompletableFuture<Result<?>> mine = new CompletableFuture<>();
+                boolean won = current == null ? entries.putIfAbsent(key, mine) == null : entries.replace(key, current, mine);
+                if (!won) {
+                    // Another request started the computation first, wait for that one
+                    continue;
+                }
+                return (Result<T>) compute(key, loader, mine);
+            }
+
+            Result<?> result;
+            try {
+                result = current.join();
+            } catch (CompletionException e) {
+                // The computation we waited on failed and has been removed, start over
+                continue;
+            }
+            if (result.isOlderThan(Duration.ofSeconds(softTtlSeconds))) {
+                refreshInBackground(key, loader);
+            }
+            return (Result<T>) result;
+        }
+    }
+
+    // Drops {@code result} unless it has already been replaced by a newer value
+    public void invalidate(String key, Result<?> result) {
+        entries.computeIfPresent(key, (k, future) ->
+                future.isDone() && !future.isCompletedExceptionally() && future.join() == result ? null : future);
+    }
+
+    // Keys include date ranges, so drop whatever nobody asked for within the hard TTL
+    @Scheduled(fixedDelayString = "${admin.analytics.hard-ttl-seconds}", timeUnit = TimeUnit.SECONDS)
+    public void evictExpired() {
+        Duration hardTtl = Duration.ofSeconds(hardTtlSeconds);
+        entries.entrySet().removeIf(entry -> isExpired(entry.getValue(), hardTtl));
+    }
+
+    private Result<?> compute(String key, Supplier<?> loader, CompletableFuture<Result<?>> future) {
+        try {
+            Result<?> result = new Result<>(loader.get(), Instant.now());
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            entries.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void refreshInBackground(String key, Supplier<?> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            analyticsExecutor.execute(() -> {
+                try {
+                    entries.put(key, CompletableFuture.completedFuture(new Result<>(loader.get(), Instant.now())));
+                } catch (RuntimeException e) {
+                    log.warn("Refreshing analytics '{}' failed, serving the previous value", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor saturated: keep serving the old value and retry on a later request
+            refreshing.remove(key);
+        }
+    }
+
+    private static boolean isExpired(CompletableFuture<Result<?>> future, Duration hardTtl) {
+        return future.isDone() && !future.isCompletedExceptionally() && future.join().isOlderThan(hardTtl);
+    }
+
+    public static final class Result<T> {
+        private final T value;
+        private final Instant computedAt;
+
+        private Result(T value, Instant computedAt) {
+            this.value = value;
+            this.computedAt = computedAt;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public Instant getComputedAt() {
+            return computedAt;
+        }
+
+        private boolean isOlderThan(Duration ttl) {
+            return computedAt.plus(ttl).isBefore(Instant.now());
+        }
+    }
+}
@@ -51,6 +51,9 @@ public class CategoryService {
         if (categoryUpdate.getImageUrl() != null) {
             category.setImageUrl(categoryUpdate.getImageUrl());
         }
+        if (categoryUpdate.getLowStockThreshold() != null) {
+            category.setLowStockThreshold(categoryUpdate.getLowStockThreshold());
+        }
         
         category.setUpdatedAt(LocalDateTime.now());
         return categoryRepository.save(category);
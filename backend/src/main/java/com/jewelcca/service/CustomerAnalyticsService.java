@@ -0,0 +1,354 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.CustomerCohort;
+import com.jewelcca.entity.CustomerRfm;
+import com.jewelcca.entity.Order;
+import com.jewelcca.repository.CustomerCohortRepository;
+import com.jewelcca.repository.CustomerRfmRepository;
+import com.jewelcca.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Customer analytics over delivered orders: RFM scores and segments per customer, and monthly
+ * acquisition cohorts with their retention. A scheduled job, run by one node under a job lease,
+ * streams per-customer aggregates into primitive column arrays, scores them in parallel (see
+ * {@link CustomerScoring}), folds the customer/month pairs into a cohort matrix, and replaces the
+ * {@code customer_rfm} and {@code customer_cohorts} snapshots in one transaction with JDBC
+ * batches. The admin views only read the snapshots.
+ */
+@Service
+public class CustomerAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerAnalyticsService.class);
+
+    private static final String JOB_NAME = "customer-analytics";
+
+    private static final String INSERT_RFM_SQL =
+            "INSERT INTO customer_rfm (user_id, recency_days, frequency, monetary, recency_score, frequency_score, " +
+            "monetary_score, segment, last_order_date, computed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_COHORT_SQL =
+            "INSERT INTO customer_cohorts (cohort_month, month_offset, cohort_size, active_customers, retention, computed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Value("${admin.customer-analytics.lease-minutes}")
+    private long leaseMinutes;
+
+    @Value("${admin.customer-analytics.cohort-months}")
+    private int cohortMonths;
+
+    @Value("${admin.customer-analytics.batch-size}")
+    private int batchSize;
+
+    @Value("${admin.customer-analytics.parallelism}")
+    private int parallelism;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRfmRepository customerRfmRepository;
+
+    @Autowired
+    private CustomerCohortRepository customerCohortRepository;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("analyticsExecutor")
+    private ThreadPoolTaskExecutor analyticsExecutor;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    // First start after upgrading: compute the snapshots in the background instead of waiting for the schedule
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshIfEmpty() {
+        if (customerRfmRepository.count() == 0 && orderRepository.countByStatus(Order.OrderStatus.DELIVERED) > 0) {
+            refreshInBackground();
+        }
+    }
+
+    public void refreshInBackground() {
+        analyticsExecutor.execute(this::refresh);
+    }
+
+    @Scheduled(cron = "${admin.customer-analytics.cron}")
+    public void refresh() {
+        Duration lease = Duration.ofMinutes(leaseMinutes);
+        if (!jobLeaseService.tryAcquire(JOB_NAME, lease)) {
+            return;
+        }
+
+        try {
+            LocalDateTime computedAt = LocalDateTime.now();
+            LocalDate today = computedAt.toLocalDate();
+
+            CustomerColumns customers = readOnlyTransaction.execute(status -> loadCustomers(today));
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                CustomerScoring.score(customers.size, customers.recencyDays, customers.frequency, customers.monetary,
+                        customers.recencyScores, customers.frequencyScores, customers.monetaryScores,
+                        customers.segments, pool);
+            } finally {
+                pool.shutdown();
+            }
+
+            int lastMonth = monthIndex(today);
+            int firstMonth = lastMonth - cohortMonths + 1;
+            int[][] cohorts = readOnlyTransaction.execute(status -> loadCohorts(firstMonth, lastMonth));
+
+            if (!jobLeaseService.checkpoint(JOB_NAME, 0L, lease)) {
+                log.warn("Lost the {} lease before writing the snapshots, stopping", JOB_NAME);
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM customer_rfm");
+                writeCustomers(customers, Timestamp.valueOf(computedAt));
+                jdbcTemplate.update("DELETE FROM customer_cohorts");
+                writeCohorts(cohorts, firstMonth, Timestamp.valueOf(computedAt));
+            });
+            log.info("Customer analytics refreshed for {} customers in {} cohorts", customers.size, cohortMonths);
+        } catch (RuntimeException e) {
+            log.error("Customer analytics refresh failed", e);
+        } finally {
+            jobLeaseService.release(JOB_NAME);
+        }
+    }
+
+    public Map<String, Object> getSegmentSummary() {
+        List<Map<String, Object>> segments = new ArrayList<>();
+        for (Object[] row : customerRfmRepository.summarizeSegments()) {
+            Map<String, Object> segment = new HashMap<>();
+            segment.put("segment", row[0]);
+            segment.put("customers", row[1]);
+            segment.put("averageRecencyDays", Math.round((Double) row[2] * 10.0) / 10.0);
+            segment.put("averageFrequency", Math.round((Double) row[3] * 100.0) / 100.0);
+            segment.put("totalMonetary", row[4]);
+            segments.add(segment);
+        }
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("segments", segments);
+        summary.put("computedAt", customerRfmRepository.findLastComputedAt());
+        return summary;
+    }
+
+    public Page<CustomerRfm> getCustomers(CustomerRfm.Segment segment, Pageable pageable) {
+        return segment != null ? customerRfmRepository.findBySegment(segment, pageable)
+                : customerRfmRepository.findAll(pageable);
+    }
+
+    public Map<String, Object> getCohorts() {
+        Map<LocalDate, Map<String, Object>> cohorts = new LinkedHashMap<>();
+        List<long[]> totals = new ArrayList<>();
+        LocalDateTime computedAt = null;
+
+        for (CustomerCohort row : customerCohortRepository.findAllByOrderByCohortMonthAscMonthOffsetAsc()) {
+            Map<String, Object> cohort = cohorts.computeIfAbsent(row.getCohortMonth(), month -> {
+                Map<String, Object> data = new HashMap<>();
+                data.put("cohortMonth", month);
+                data.put("cohortSize", row.getCohortSize());
+                data.put("retention", new ArrayList<BigDecimal>());
+                return data;
+            });
+            @SuppressWarnings("unchecked")
+            List<BigDecimal> retention = (List<BigDecimal>) cohort.get("retention");
+            retention.add(row.getRetention());
+
+            // Weighted curve over every cohort old enough to have reached the offset
+            while (totals.size() <= row.getMonthOffset()) {
+                totals.add(new long[2]);
+            }
+            totals.get(row.getMonthOffset())[0] += row.getActiveCustomers();
+            totals.get(row.getMonthOffset())[1] += row.getCohortSize();
+            computedAt = row.getComputedAt();
+        }
+
+        List<BigDecimal> retentionCurve = new ArrayList<>();
+        for (long[] total : totals) {
+            retentionCurve.add(total[1] == 0 ? BigDecimal.ZERO
+                    : BigDecimal.valueOf(total[0]).divide(BigDecimal.valueOf(total[1]), 4, RoundingMode.HALF_UP));
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("cohorts", new ArrayList<>(cohorts.values()));
+        result.put("retentionCurve", retentionCurve);
+        result.put("computedAt", computedAt);
+        return result;
+    }
+
+    private CustomerColumns loadCustomers(LocalDate today) {
+        CustomerColumns customers = new CustomerColumns();
+        long todayEpochDay = today.toEpochDay();
+        try (Stream<Object[]> rows = orderRepository.streamCustomerAggregates(Order.OrderStatus.DELIVERED)) {
+            rows.forEach(row -> {
+                int lastOrderDay = (int) ((LocalDateTime) row[3]).toLocalDate().toEpochDay();
+                customers.add((Long) row[0],
+                        (int) Math.max(0, todayEpochDay - lastOrderDay),
+                        ((Long) row[1]).intValue(),
+                        ((BigDecimal) row[2]).movePointRight(2).longValue(),
+                        lastOrderDay);
+            });
+        }
+        customers.allocateScores();
+        return customers;
+    }
+
+    /**
+     * Customers per [cohort][monthOffset] for cohorts first ordering in [firstMonth, lastMonth].
+     * Pairs arrive ordered by user then month, so a user's first pair is their acquisition month.
+     */
+    private int[][] loadCohorts(int firstMonth, int lastMonth) {
+        int[][] cohorts = new int[lastMonth - firstMonth + 1][];
+        for (int cohort = 0; cohort < cohorts.length; cohort++) {
+            cohorts[cohort] = new int[cohorts.length - cohort];
+        }
+
+        long[] currentUser = {-1L};
+        int[] currentCohort = {-1};
+        try (Stream<Object[]> rows = orderRepository.streamCustomerOrderMonths(Order.OrderStatus.DELIVERED.name())) {
+            rows.forEach(row -> {
+                long userId = ((Number) row[0]).longValue();
+                int month = ((Number) row[1]).intValue();
+                if (userId != currentUser[0]) {
+                    currentUser[0] = userId;
+                    currentCohort[0] = month - firstMonth;
+                }
+                int cohort = currentCohort[0];
+                if (cohort >= 0 && month <= lastMonth) {
+                    cohorts[cohort][month - firstMonth - cohort]++;
+                }
+            });
+        }
+        return cohorts;
+    }
+
+    private void writeCustomers(CustomerColumns customers, Timestamp computedAt) {
+        for (int start = 0; start < customers.size; start += batchSize) {
+            int offset = start;
+            int count = Math.min(batchSize, customers.size - start);
+            jdbcTemplate.batchUpdate(INSERT_RFM_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int c = offset + i;
+                    ps.setLong(1, customers.userIds[c]);
+                    ps.setInt(2, customers.recencyDays[c]);
+                    ps.setInt(3, customers.frequency[c]);
+                    ps.setBigDecimal(4, BigDecimal.valueOf(customers.monetary[c], 2));
+                    ps.setInt(5, customers.recencyScores[c]);
+                    ps.setInt(6, customers.frequencyScores[c]);
+                    ps.setInt(7, customers.monetaryScores[c]);
+                    ps.setString(8, CustomerScoring.segment(customers.segments[c]).name());
+                    ps.setDate(9, Date.valueOf(LocalDate.ofEpochDay(customers.lastOrderDay[c])));
+                    ps.setTimestamp(10, computedAt);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+    }
+
+    private void writeCohorts(int[][] cohorts, int firstMonth, Timestamp computedAt) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int cohort = 0; cohort < cohorts.length; cohort++) {
+            int size = cohorts[cohort][0];
+            if (size == 0) {
+                continue;
+            }
+            int month = firstMonth + cohort;
+            Date cohortMonth = Date.valueOf(LocalDate.of(month / 12, month % 12 + 1, 1));
+            for (int offset = 0; offset < cohorts[cohort].length; offset++) {
+                int active = cohorts[cohort][offset];
+                rows.add(new Object[]{cohortMonth, offset, size, active,
+                        BigDecimal.valueOf(active).divide(BigDecimal.valueOf(size), 4, RoundingMode.HALF_UP), computedAt});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_COHORT_SQL, rows);
+    }
+
+    private static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    // One slot per customer in each column, grown as rows stream in
+    private static final class CustomerColumns {
+        private int size;
+        private long[] userIds = new long[1024];
+        private int[] recencyDays = new int[1024];
+        private int[] frequency = new int[1024];
+        private long[] monetary = new long[1024];
+        private int[] lastOrderDay = new int[1024];
+        private byte[] recencyScores;
+        private byte[] frequencyScores;
+        private byte[] monetaryScores;
+        private byte[] segments;
+
+        private void add(long userId, int recency, int orders, long monetaryPaise, int lastDay) {
+            if (size == userIds.length) {
+                int capacity = size + (size >> 1);
+                userIds = Arrays.copyOf(userIds, capacity);
+                recencyDays = Arrays.copyOf(recencyDays, capacity);
+                frequency = Arrays.copyOf(frequency, capacity);
+                monetary = Arrays.copyOf(monetary, capacity);
+                lastOrderDay = Arrays.copyOf(lastOrderDay, capacity);
+            }
+            userIds[size] = userId;
+            recencyDays[size] = recency;
+            frequency[size] = orders;
+            monetary[size] = monetaryPaise;
+            lastOrderDay[size] = lastDay;
+            size++;
+        }
+
+        private void allocateScores() {
+            recencyScores = new byte[size];
+            frequencyScores = new byte[size];
+            monetaryScores = new byte[size];
+            segments = new byte[size];
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.CustomerRfm;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * RFM quintile scoring over column arrays, one slot per customer. Each metric is copied and
+ * parallel-sorted once; a customer's score is the quintile of the first position of its value in
+ * the sorted copy, so equal values always share a score. Scoring itself is split into fork-join
+ * tasks over index ranges.
+ */
+final class CustomerScoring {
+
+    private static final int SEQUENTIAL_THRESHOLD = 10_000;
+
+    private static final CustomerRfm.Segment[] SEGMENTS = CustomerRfm.Segment.values();
+
+    private CustomerScoring() {}
+
+    /**
+     * Fills {@code recencyScores}, {@code frequencyScores}, {@code monetaryScores} and
+     * {@code segments} (ordinals of {@link CustomerRfm.Segment}) for the first {@code size} customers.
+     */
+    static void score(int size, int[] recencyDays, int[] frequency, long[] monetary,
+                      byte[] recencyScores, byte[] frequencyScores, byte[] monetaryScores, byte[] segments,
+                      ForkJoinPool pool) {
+        if (size == 0) {
+            return;
+        }
+        int[] sortedRecency = Arrays.copyOf(recencyDays, size);
+        int[] sortedFrequency = Arrays.copyOf(frequency, size);
+        long[] sortedMonetary = Arrays.copyOf(monetary, size);
+        Arrays.parallelSort(sortedRecency);
+        Arrays.parallelSort(sortedFrequency);
+        Arrays.parallelSort(sortedMonetary);
+
+        pool.invoke(new ScoreTask(0, size, size, recencyDays, frequency, monetary,
+                sortedRecency, sortedFrequency, sortedMonetary,
+                recencyScores, frequencyScores, monetaryScores, segments));
+    }
+
+    static CustomerRfm.Segment segment(byte ordinal) {
+        return SEGMENTS[ordinal];
+    }
+
+    static CustomerRfm.Segment segmentFor(int recency, int frequency) {
+        if (recency >= 4 && frequency >= 4) {
+            return CustomerRfm.Segment.CHAMPIONS;
+        }
+        if (frequency >= 4) {
+            return CustomerRfm.Segment.LOYAL;
+        }
+        if (recency >= 4) {
+            return frequency == 1 ? CustomerRfm.Segment.NEW_CUSTOMER : CustomerRfm.Segment.POTENTIAL_LOYALIST;
+        }
+        if (recency <= 2) {
+            return frequency >= 3 ? CustomerRfm.Segment.AT_RISK : CustomerRfm.Segment.HIBERNATING;
+        }
+        return CustomerRfm.Segment.NEEDS_ATTENTION;
+    }
+
+    // Quintile 1..5 of a value whose first position in the ascending sort is rank
+    private static int quintile(int rank, int size) {
+        return 1 + (int) ((long) rank * 5 / size);
+    }
+
+    private static int lowerBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class ScoreTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int size;
+        private final int[] recencyDays;
+        private final int[] frequency;
+        private final long[] monetary;
+        private final int[] sortedRecency;
+        private final int[] sortedFrequency;
+        private final long[] sortedMonetary;
+        private final byte[] recencyScores;
+        private final byte[] frequencyScores;
+        private final byte[] monetaryScores;
+        private final byte[] segments;
+
+        private ScoreTask(int from, int to, int size, int[] recencyDays, int[] frequency, long[] monetary,
+                          int[] sortedRecency, int[] sortedFrequency, long[] sortedMonetary,
+                          byte[] recencyScores, byte[] frequencyScores, byte[] monetaryScores, byte[] segments) {
+            this.from = from;
+            this.to = to;
+            this.size = size;
+            this.recencyDays = recencyDays;
+            this.frequency = frequency;
+            this.monetary = monetary;
+            this.sortedRecency = sortedRecency;
+            this.sortedFrequency = sortedFrequency;
+            this.sortedMonetary = sortedMonetary;
+            this.recencyScores = recencyScores;
+            this.frequencyScores = frequencyScores;
+            this.monetaryScores = monetaryScores;
+            this.segments = segments;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    // Fewer days since the last order is better, so recency is scored in reverse
+                    int recency = 6 - quintile(lowerBound(sortedRecency, recencyDays[i]), size);
+                    int frequencyScore = quintile(lowerBound(sortedFrequency, frequency[i]), size);
+                    recencyScores[i] = (byte) recency;
+                    frequencyScores[i] = (byte) frequencyScore;
+                    monetaryScores[i] = (byte) quintile(lowerBound(sortedMonetary, monetary[i]), size);
+                    segments[i] = (byte) segmentFor(recency, frequencyScore).ordinal();
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(split(from, mid), split(mid, to));
+        }
+
+        private ScoreTask split(int splitFrom, int splitTo) {
+            return new ScoreTask(splitFrom, splitTo, size, recencyDays, frequency, monetary,
+                    sortedRecency, sortedFrequency, sortedMonetary,
+                    recencyScores, frequencyScores, monetaryScores, segments);
+        }
+    }
+}
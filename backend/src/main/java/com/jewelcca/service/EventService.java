@@ -1,21 +1,102 @@
 package com.jewelcca.service;
 
+import com.jewelcca.dto.CalendarFeed;
+import com.jewelcca.dto.EventFeedResponse;
 import com.jewelcca.entity.Event;
 import com.jewelcca.repository.EventRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
 
+/**
+ * Upcoming events are served from an in-memory list sorted by (date, id). The list is reloaded on
+ * every write, and a task scheduled for the date of the earliest event drops events as they roll
+ * into the past. Past events are paged from the database by keyset on the same index. The
+ * iCalendar feed and its ETag are computed once per change and served as is until the next one.
+ */
 @Service
 public class EventService {
 
+    private static final Comparator<Event> BY_DATE_AND_ID =
+            Comparator.comparing(Event::getDate).thenComparing(Event::getId);
+
+    private static final DateTimeFormatter ICAL_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    @Value("${events.calendar-past-days}")
+    private int calendarPastDays;
+
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private volatile List<Event> upcomingEvents = List.of();
+    private volatile CalendarFeed calendarFeed = new CalendarFeed(renderCalendar(List.of()));
+    private ScheduledFuture<?> nextRollOff;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        upcomingEvents = List.copyOf(eventRepository.findByDateGreaterThanEqualOrderByDateAscIdAsc(now));
+        calendarFeed = new CalendarFeed(renderCalendar(eventRepository.findByDateGreaterThanEqualOrderByDateAscIdAsc(
+                now.minusDays(calendarPastDays))));
+        scheduleRollOff();
+    }
+
     public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+        return upcomingEvents;
+    }
+
+    public EventFeedResponse getUpcomingEvents(LocalDateTime afterDate, Long afterId, int size) {
+        List<Event> events = upcomingEvents;
+        LocalDateTime now = LocalDateTime.now();
+
+        int from = 0;
+        if (afterDate != null) {
+            Event cursor = new Event();
+            cursor.setDate(afterDate);
+            cursor.setId(afterId != null ? afterId : Long.MAX_VALUE);
+            int position = Collections.binarySearch(events, cursor, BY_DATE_AND_ID);
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        // The roll-off task may not have run yet for events that just started
+        while (from < events.size() && events.get(from).getDate().isBefore(now)) {
+            from++;
+        }
+
+        int to = Math.min(events.size(), from + size);
+        return new EventFeedResponse(events.subList(from, to), to < events.size());
+    }
+
+    public EventFeedResponse getPastEvents(LocalDateTime beforeDate, Long beforeId, int size) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = eventRepository.findPastBefore(now,
+                beforeDate != null ? beforeDate : now,
+                beforeId != null ? beforeId : Long.MAX_VALUE,
+                PageRequest.of(0, size + 1));
+
+        boolean hasMore = events.size() > size;
+        return new EventFeedResponse(hasMore ? events.subList(0, size) : events, hasMore);
+    }
+
+    public CalendarFeed getCalendarFeed() {
+        return calendarFeed;
     }
 
     public Optional<Event> getEventById(Long id) {
@@ -23,7 +104,9 @@ public class EventService {
     }
 
     public Event createEvent(Event event) {
-        return eventRepository.save(event);
+        event = eventRepository.save(event);
+        refresh();
+        return event;
     }
 
     public Event updateEvent(Long id, Event eventDetails) {
@@ -32,10 +115,87 @@ public class EventService {
         event.setDescription(eventDetails.getDescription());
         event.setDate(eventDetails.getDate());
         event.setLocation(eventDetails.getLocation());
-        return eventRepository.save(event);
+        event = eventRepository.save(event);
+        refresh();
+        return event;
     }
 
     public void deleteEvent(Long id) {
         eventRepository.deleteById(id);
+        refresh();
+    }
+
+    private synchronized void rollOff() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> events = upcomingEvents;
+        int from = 0;
+        while (from < events.size() && events.get(from).getDate().isBefore(now)) {
+            from++;
+        }
+        upcomingEvents = List.copyOf(events.subList(from, events.size()));
+        scheduleRollOff();
+    }
+
+    private void scheduleRollOff() {
+        if (nextRollOff != null) {
+            nextRollOff.cancel(false);
+        }
+        List<Event> events = upcomingEvents;
+        nextRollOff = events.isEmpty() ? null : taskScheduler.schedule(this::rollOff,
+                events.get(0).getDate().plusNanos(1000).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static byte[] renderCalendar(List<Event> events) {
+        String stamp = LocalDateTime.now(ZoneOffset.UTC).format(ICAL_UTC);
+        StringBuilder ics = new StringBuilder()
+                .append("BEGIN:VCALENDAR\r\n")
+                .append("VERSION:2.0\r\n")
+                .append("PRODID:-//Jewelcca//Events//EN\r\n")
+                .append("CALSCALE:GREGORIAN\r\n")
+                .append("X-WR-CALNAME:Jewelcca Events\r\n");
+
+        for (Event event : events) {
+            String start = event.getDate().atZone(ZoneId.systemDefault())
+                    .withZoneSameInstant(ZoneOffset.UTC).format(ICAL_UTC);
+            ics.append("BEGIN:VEVENT\r\n");
+            appendLine(ics, "UID:event-" + event.getId() + "@jewelcca");
+            appendLine(ics, "DTSTAMP:" + stamp);
+            appendLine(ics, "DTSTART:" + start);
+            appendLine(ics, "SUMMARY:" + escape(event.getTitle()));
+            appendLine(ics, "LOCATION:" + escape(event.getLocation()));
+            appendLine(ics, "DESCRIPTION:" + escape(event.getDescription()));
+            ics.append("END:VEVENT\r\n");
+        }
+
+        ics.append("END:VCALENDAR\r\n");
+        return ics.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // RFC 5545 content lines are folded so no physical line exceeds 75 octets
+    private static void appendLine(StringBuilder ics, String line) {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + width > 75) {
+                ics.append("\r\n ");
+                octets = 1;
+            }
+            ics.appendCodePoint(codePoint);
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        ics.append("\r\n");
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
     }
 }
@@ -0,0 +1,170 @@
+package com.jewelcca.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewelcca.repository.OrderRepository;
+import com.jewelcca.repository.ProductRepository;
+import com.jewelcca.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams admin exports straight to the response. Each export is one forward-only query read
+ * through a server-side cursor (a fetch size inside a read-only transaction), selecting plain
+ * columns rather than entities; rows are written as they arrive and flushed, and the persistence
+ * context cleared, every chunk, so memory stays flat however many rows are exported.
+ */
+@Service
+public class ExportService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    // Lower bound for order exports requested without a start date
+    private static final LocalDateTime EXPORT_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private static final String[] ORDER_COLUMNS = {"id", "orderNumber", "customerEmail", "status", "paymentMethod",
+            "paymentStatus", "totalAmount", "discountAmount", "offerCode", "trackingNumber", "createdAt"};
+    private static final String[] USER_COLUMNS = {"id", "firstName", "lastName", "email", "phone", "role",
+            "enabled", "createdAt"};
+    private static final String[] PRODUCT_COLUMNS = {"id", "name", "category", "price", "originalPrice",
+            "stockQuantity", "inStock", "rating", "reviewCount", "createdAt"};
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static ExportFormat from(String format) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + format);
+            }
+        }
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void exportOrders(OutputStream out, ExportFormat format, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime from = startDate != null ? startDate : EXPORT_EPOCH;
+        LocalDateTime to = endDate != null ? endDate : LocalDateTime.now();
+        export(out, format, ORDER_COLUMNS, () -> orderRepository.streamExportRows(from, to));
+    }
+
+    public void exportUsers(OutputStream out, ExportFormat format) {
+        export(out, format, USER_COLUMNS, userRepository::streamExportRows);
+    }
+
+    public void exportProducts(OutputStream out, ExportFormat format) {
+        export(out, format, PRODUCT_COLUMNS, productRepository::streamExportRows);
+    }
+
+    private void export(OutputStream out, ExportFormat format, String[] columns, Supplier<Stream<Object[]>> query) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = query.get()) {
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, columns);
+                }
+
+                int inChunk = 0;
+                for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+                    Object[] row = it.next();
+                    if (format == ExportFormat.CSV) {
+                        writeCsvRow(writer, row);
+                    } else {
+                        writeJsonRow(writer, columns, row);
+                    }
+                    if (++inChunk == CHUNK_SIZE) {
+                        entityManager.clear();
+                        writer.flush();
+                        inChunk = 0;
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                // Usually the client went away; the read-only transaction just ends
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeJsonRow(Writer writer, String[] columns, Object[] row) throws IOException {
+        Map<String, Object> record = new LinkedHashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            record.put(columns[i], row[i]);
+        }
+        writer.write(objectMapper.writeValueAsString(record));
+        writer.write('\n');
+    }
+
+    private static void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        // Keep spreadsheet apps from evaluating customer-entered text as a formula
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            text = "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,57 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.JobLease;
+import com.jewelcca.repository.JobLeaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Database-backed leases that let scheduled jobs run on several nodes while only one node
+ * works at a time. A lease carries a checkpoint so a job taken over after a crash resumes
+ * where the previous owner stopped.
+ */
+@Service
+public class JobLeaseService {
+
+    private final String owner = resolveHostName() + "-" + UUID.randomUUID();
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    public boolean tryAcquire(String jobName, Duration leaseDuration) {
+        LocalDateTime now = LocalDateTime.now();
+        return jobLeaseRepository.tryAcquire(jobName, owner, now.plus(leaseDuration), now) > 0;
+    }
+
+    public long getCheckpoint(String jobName) {
+        return jobLeaseRepository.findById(jobName)
+                .map(JobLease::getCheckpoint)
+                .orElse(0L);
+    }
+
+    /**
+     * Stores the checkpoint and extends the lease; returns {@code false} if the lease was lost.
+     */
+    public boolean checkpoint(String jobName, long checkpoint, Duration leaseDuration) {
+        LocalDateTime now = LocalDateTime.now();
+        return jobLeaseRepository.saveCheckpoint(jobName, owner, checkpoint, now.plus(leaseDuration), now) > 0;
+    }
+
+    public void release(String jobName) {
+        jobLeaseRepository.release(jobName, owner, LocalDateTime.now());
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
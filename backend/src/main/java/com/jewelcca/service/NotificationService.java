@@ -0,0 +1,36 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.Notification;
+import com.jewelcca.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class NotificationService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    public Page<Notification> getNotifications(Long userId, Pageable pageable) {
+        return notificationRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, pageable);
+    }
+
+    public long getUnreadCount(Long userId) {
+        return notificationRepository.countByUserIdAndReadFalse(userId);
+    }
+
+    @Transactional
+    public void markRead(Long id, Long userId) {
+        if (notificationRepository.markRead(id, userId) == 0) {
+            throw new RuntimeException("Notification not found");
+        }
+    }
+
+    @Transactional
+    public int markAllRead(Long userId) {
+        return notificationRepository.markAllRead(userId);
+    }
+}
@@ -0,0 +1,201 @@
+package com.jewelcca.service;
+
+import com.jewelcca.dto.OfferQuote;
+import com.jewelcca.entity.Offer;
+import com.jewelcca.repository.OfferRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Keeps every offer in memory. Codes are indexed upper-cased, and validity windows are indexed as
+ * an interval map: each validFrom / validTo boundary maps to the offers active from that instant
+ * until the next boundary, so "what is active at t" is a single floor lookup. The active set for
+ * the current time is swapped by a task scheduled at the next boundary instead of polling.
+ * Offers without validFrom / validTo are treated as open-ended on that side.
+ */
+@Component
+public class OfferEngine {
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile List<Offer> activeOffers = List.of();
+    private ScheduledFuture<?> nextSwap;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    // Picks up offer changes made through other instances; activation itself is not polled
+    @Scheduled(fixedDelayString = "${offers.resync-interval-ms}", initialDelayString = "${offers.resync-interval-ms}")
+    public void resync() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        snapshot = Snapshot.build(offerRepository.findAll());
+        swapActiveOffers();
+    }
+
+    public List<Offer> getActiveOffers() {
+        return activeOffers;
+    }
+
+    public List<Offer> getActiveOffersAt(LocalDateTime time) {
+        return snapshot.activeAt(time);
+    }
+
+    public Optional<Offer> findByCode(String code) {
+        if (code == null || code.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot.byCode.get(normalizeCode(code)));
+    }
+
+    public Optional<Offer> findById(Long id) {
+        return Optional.ofNullable(snapshot.byId.get(id));
+    }
+
+    /**
+     * Best eligible offer for {@code subtotal}: the offer behind {@code code}, if one is given, or
+     * any currently active offer without a code, whichever gives the larger discount. Redemption
+     * caps only apply to coupon codes, so capped offers are never applied automatically.
+     */
+    public OfferQuote quote(BigDecimal subtotal, String code) {
+        List<Offer> active = activeOffers;
+        List<Offer> eligible = new ArrayList<>();
+
+        if (code != null && !code.isBlank()) {
+            LocalDateTime now = LocalDateTime.now();
+            Offer coupon = findByCode(code)
+                    .filter(offer -> isActiveAt(offer, now))
+                    .orElseThrow(() -> new RuntimeException("Invalid or expired coupon code"));
+            eligible.add(coupon);
+        }
+        for (Offer offer : active) {
+            if ((offer.getCode() == null || offer.getCode().isBlank())
+                    && offer.getMaxRedemptions() == null && offer.getMaxRedemptionsPerUser() == null) {
+                eligible.add(offer);
+            }
+        }
+
+        Offer best = null;
+        BigDecimal bestDiscount = BigDecimal.ZERO;
+        for (Offer offer : eligible) {
+            BigDecimal discount = discountFor(offer, subtotal);
+            if (discount.compareTo(bestDiscount) > 0) {
+                best = offer;
+                bestDiscount = discount;
+            }
+        }
+        return new OfferQuote(subtotal, bestDiscount, subtotal.subtract(bestDiscount), best);
+    }
+
+    private static boolean isActiveAt(Offer offer, LocalDateTime time) {
+        return offer.isActive()
+                && (offer.getValidFrom() == null || !time.isBefore(offer.getValidFrom()))
+                && (offer.getValidTo() == null || !time.isAfter(offer.getValidTo()));
+    }
+
+    static String normalizeCode(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static BigDecimal discountFor(Offer offer, BigDecimal subtotal) {
+        if (offer.getDiscountPercentage() == null) {
+            return BigDecimal.ZERO;
+        }
+        return subtotal.multiply(offer.getDiscountPercentage())
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
+                .min(subtotal);
+    }
+
+    private synchronized void swapActiveOffers() {
+        LocalDateTime now = LocalDateTime.now();
+        activeOffers = snapshot.activeAt(now);
+
+        if (nextSwap != null) {
+            nextSwap.cancel(false);
+        }
+        LocalDateTime nextBoundary = snapshot.boundaries.higherKey(now);
+        nextSwap = nextBoundary == null ? null
+                : taskScheduler.schedule(this::swapActiveOffers, nextBoundary.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), new TreeMap<>(), List.of());
+
+        private final Map<Long, Offer> byId;
+        private final Map<String, Offer> byCode;
+        // Boundary instant -> offers active from that instant until the next boundary
+        private final NavigableMap<LocalDateTime, List<Offer>> boundaries;
+        private final List<Offer> beforeFirstBoundary;
+
+        private Snapshot(Map<Long, Offer> byId, Map<String, Offer> byCode,
+                         NavigableMap<LocalDateTime, List<Offer>> boundaries, List<Offer> beforeFirstBoundary) {
+            this.byId = byId;
+            this.byCode = byCode;
+            this.boundaries = boundaries;
+            this.beforeFirstBoundary = beforeFirstBoundary;
+        }
+
+        private List<Offer> activeAt(LocalDateTime time) {
+            Map.Entry<LocalDateTime, List<Offer>> segment = boundaries.floorEntry(time);
+            return segment != null ? segment.getValue() : beforeFirstBoundary;
+        }
+
+        private static Snapshot build(List<Offer> offers) {
+            Map<Long, Offer> byId = new HashMap<>();
+            Map<String, Offer> byCode = new HashMap<>();
+            List<Offer> enabled = new ArrayList<>();
+            TreeSet<LocalDateTime> instants = new TreeSet<>();
+
+            for (Offer offer : offers) {
+                byId.put(offer.getId(), offer);
+                if (offer.getCode() != null && !offer.getCode().isBlank()) {
+                    byCode.put(normalizeCode(offer.getCode()), offer);
+                }
+                if (!offer.isActive()) {
+                    continue;
+                }
+                enabled.add(offer);
+                if (offer.getValidFrom() != null) {
+                    instants.add(offer.getValidFrom());
+                }
+                if (offer.getValidTo() != null) {
+                    // validTo is inclusive, the offer drops out just after it
+                    instants.add(offer.getValidTo().plusNanos(1));
+                }
+            }
+
+            List<Offer> beforeFirstBoundary = instants.isEmpty() ? List.copyOf(enabled)
+                    : activeIn(enabled, instants.first().minusNanos(1));
+
+            NavigableMap<LocalDateTime, List<Offer>> boundaries = new TreeMap<>();
+            for (LocalDateTime instant : instants) {
+                boundaries.put(instant, activeIn(enabled, instant));
+            }
+            return new Snapshot(Map.copyOf(byId), Map.copyOf(byCode), boundaries, beforeFirstBoundary);
+        }
+
+        private static List<Offer> activeIn(List<Offer> offers, LocalDateTime time) {
+            return offers.stream().filter(offer -> isActiveAt(offer, time)).toList();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.Offer;
+import com.jewelcca.entity.OfferRedemptionShard;
+import com.jewelcca.repository.OfferRedemptionShardRepository;
+import com.jewelcca.repository.OfferRepository;
+import com.jewelcca.repository.OfferUserRedemptionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Enforces coupon redemption caps. An offer's global cap is split across a fixed number of counter
+ * rows (shards) whose capacities add up to the cap; a redemption takes one unit from a shard with a
+ * guarded {@code used < capacity} update, starting at a random shard, so concurrent checkouts of
+ * the same code rarely wait on the same row and the cap can never be exceeded. Per-user caps are a
+ * guarded upsert on (offer, user). Both run in the checkout transaction and roll back with it.
+ * Whether a cap applies is decided from the database rather than the cached offer, which can lag
+ * behind an admin change on another node.
+ */
+@Service
+public class OfferRedemptionService {
+
+    @Value("${offers.redemption-shards}")
+    private int shardCount;
+
+    @Autowired
+    private OfferRedemptionShardRepository shardRepository;
+
+    @Autowired
+    private OfferUserRedemptionRepository userRedemptionRepository;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    /**
+     * Creates or resizes the counter shards after an offer's global cap was set or changed.
+     * Redemptions already taken stay counted; only the remaining capacity is redistributed.
+     */
+    @Transactional
+    public void provision(Offer offer) {
+        Integer maxRedemptions = offer.getMaxRedemptions();
+        if (maxRedemptions == null) {
+            shardRepository.deleteAll(shardRepository.lockByOfferId(offer.getId()));
+            return;
+        }
+
+        // Insert-if-absent first so two concurrent first calls don't collide on the unique key,
+        // then lock the rows so the capacities are redistributed by one call at a time
+        shardRepository.insertMissingShards(offer.getId(), shardCount);
+        List<OfferRedemptionShard> shards = shardRepository.lockByOfferId(offer.getId());
+
+        int used = shards.stream().mapToInt(OfferRedemptionShard::getUsed).sum();
+        int remaining = Math.max(0, maxRedemptions - used);
+        for (int i = 0; i < shards.size(); i++) {
+            OfferRedemptionShard shard = shards.get(i);
+            shard.setCapacity(shard.getUsed() + remaining / shards.size() + (i < remaining % shards.size() ? 1 : 0));
+        }
+        shardRepository.saveAll(shards);
+    }
+
+    /**
+     * Counts one redemption of {@code offer} by {@code userId}.
+     *
+     * @return the shard the redemption was taken from, or {@code null} when the offer has no global cap
+     */
+    @Transactional
+    public Integer redeem(Offer offer, Long userId) {
+        Integer perUserLimit = offerRepository.findMaxRedemptionsPerUserById(offer.getId());
+        if (perUserLimit != null && userRedemptionRepository.tryRedeem(offer.getId(), userId, perUserLimit) == 0) {
+            throw new RuntimeException("You have already used this coupon the maximum number of times");
+        }
+
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            int shard = (start + i) % shardCount;
+            if (shardRepository.tryRedeem(offer.getId(), shard) > 0) {
+                return shard;
+            }
+            // Shards exist exactly while the offer has a global cap
+            if (i == 0 && !shardRepository.existsByOfferId(offer.getId())) {
+                return null;
+            }
+        }
+        throw new RuntimeException("This coupon has reached its usage limit");
+    }
+
+    // Gives a cancelled order's redemption back
+    @Transactional
+    public void release(Long offerId, Integer shard, Long userId) {
+        if (shard != null) {
+            shardRepository.release(offerId, shard);
+        }
+        userRedemptionRepository.release(offerId, userId);
+    }
+
+    @Transactional
+    public void deleteCounters(Long offerId) {
+        shardRepository.deleteByOfferId(offerId);
+        userRedemptionRepository.deleteByOfferId(offerId);
+    }
+
+    public Map<String, Object> getRedemptionStats(Offer offer) {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("offerId", offer.getId());
+        stats.put("redeemed", shardRepository.sumUsedByOfferId(offer.getId()));
+        stats.put("maxRedemptions", offer.getMaxRedemptions());
+        stats.put("maxRedemptionsPerUser", offer.getMaxRedemptionsPerUser());
+        return stats;
+    }
+}
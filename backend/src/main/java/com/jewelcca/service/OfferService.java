@@ -1,12 +1,17 @@
 package com.jewelcca.service;
 
+import com.jewelcca.dto.OfferQuote;
+import com.jewelcca.entity.CartItem;
 import com.jewelcca.entity.Offer;
+import com.jewelcca.repository.CartItemRepository;
 import com.jewelcca.repository.OfferRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class OfferService {
@@ -14,8 +19,17 @@ public class OfferService {
     @Autowired
     private OfferRepository offerRepository;
 
+    @Autowired
+    private OfferEngine offerEngine;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private OfferRedemptionService offerRedemptionService;
+
     public List<Offer> getAllActiveOffers() {
-        return offerRepository.findActiveOffers(LocalDateTime.now());
+        return offerEngine.getActiveOffers();
     }
 
     public Offer getOfferById(Long id) {
@@ -24,12 +38,28 @@ public class OfferService {
     }
 
     public Offer getOfferByCode(String code) {
-        return offerRepository.findByCode(code)
+        return offerEngine.findByCode(code)
                 .orElseThrow(() -> new RuntimeException("Offer not found"));
     }
 
+    // Price preview for the checkout page, same rules as OrderService.createOrder
+    public OfferQuote applyToCart(Long userId, String code) {
+        List<CartItem> cartItems = cartItemRepository.findByUserId(userId);
+        if (cartItems.isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+
+        BigDecimal subtotal = cartItems.stream()
+                .map(item -> item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return offerEngine.quote(subtotal, code);
+    }
+
     public Offer createOffer(Offer offer) {
-        return offerRepository.save(offer);
+        offer = offerRepository.save(offer);
+        offerRedemptionService.provision(offer);
+        offerEngine.reload();
+        return offer;
     }
 
     public Offer updateOffer(Long id, Offer offerUpdate) {
@@ -56,15 +86,30 @@ public class OfferService {
         if (offerUpdate.getValidTo() != null) {
             offer.setValidTo(offerUpdate.getValidTo());
         }
+        if (offerUpdate.getMaxRedemptions() != null) {
+            offer.setMaxRedemptions(offerUpdate.getMaxRedemptions());
+        }
+        if (offerUpdate.getMaxRedemptionsPerUser() != null) {
+            offer.setMaxRedemptionsPerUser(offerUpdate.getMaxRedemptionsPerUser());
+        }
         
         offer.setActive(offerUpdate.isActive());
         offer.setUpdatedAt(LocalDateTime.now());
         
-        return offerRepository.save(offer);
+        offer = offerRepository.save(offer);
+        offerRedemptionService.provision(offer);
+        offerEngine.reload();
+        return offer;
+    }
+
+    public Map<String, Object> getRedemptionStats(Long id) {
+        return offerRedemptionService.getRedemptionStats(getOfferById(id));
     }
 
     public void deleteOffer(Long id) {
         Offer offer = getOfferById(id);
         offerRepository.delete(offer);
+        offerRedemptionService.deleteCounters(id);
+        offerEngine.reload();
     }
 }
\ No newline at end of file
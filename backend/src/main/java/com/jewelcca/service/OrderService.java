@@ -1,21 +1,26 @@
 package com.jewelcca.service;
 
 
+import com.jewelcca.dto.OfferQuote;
 import com.jewelcca.dto.OrderRequest;
 import com.jewelcca.entity.*;
+import com.jewelcca.event.StoreActivityEvent;
 import com.jewelcca.repository.CartItemRepository;
 import com.jewelcca.repository.OrderRepository;
+import com.jewelcca.repository.OrderStatusHistoryRepository;
 import com.jewelcca.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +35,26 @@ public class OrderService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private OrderStatusHistoryRepository orderStatusHistoryRepository;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private OfferEngine offerEngine;
+
+    @Autowired
+    private OfferRedemptionService offerRedemptionService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final int TRANSITION_BATCH_SIZE = 1000;
+
     @Transactional
     public Order createOrder(Long userId, OrderRequest request) {
         User user = userRepository.findById(userId)
@@ -41,23 +66,29 @@ public class OrderService {
         }
 
         // Calculate total amount
-        BigDecimal totalAmount = cartItems.stream()
+        BigDecimal subtotal = cartItems.stream()
                 .map(item -> item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
+        OfferQuote quote = offerEngine.quote(subtotal, request.getCouponCode());
 
         // Create order
         Order order = new Order();
         order.setOrderNumber(generateOrderNumber());
         order.setUser(user);
-        order.setTotalAmount(totalAmount);
+        order.setTotalAmount(quote.getTotal());
+        order.setDiscountAmount(quote.getDiscountAmount());
+        order.setOfferId(quote.getOfferId());
+        order.setOfferCode(quote.getOfferCode());
+        if (quote.getOfferId() != null) {
+            Offer offer = offerEngine.findById(quote.getOfferId())
+                    .orElseThrow(() -> new RuntimeException("Offer not found"));
+            order.setOfferShard(offerRedemptionService.redeem(offer, userId));
+        }
         order.setPaymentMethod(request.getPaymentMethod());
         order.setShippingAddress(request.getShippingAddress());
 
-        if (request.getPaymentMethod() == Order.PaymentMethod.COD) {
-            order.setPaymentStatus(Order.PaymentStatus.PENDING);
-        } else {
-            order.setPaymentStatus(Order.PaymentStatus.COMPLETED);
-        }
+        // Online payments stay PENDING until verified, reported by webhook or reconciled
+        order.setPaymentStatus(Order.PaymentStatus.PENDING);
 
         order = orderRepository.save(order);
 
@@ -77,7 +108,10 @@ public class OrderService {
         // Clear cart
         cartItemRepository.deleteByUserId(userId);
 
-        return orderRepository.save(order);
+        order = orderRepository.save(order);
+        orderStatusHistoryRepository.save(new OrderStatusHistory(order.getId(), null, order.getStatus(), user.getEmail()));
+        eventPublisher.publishEvent(StoreActivityEvent.orderCreated(order.getId(), order.getOrderNumber(), order.getTotalAmount()));
+        return order;
     }
 
     public List<Order> getUserOrders(Long userId) {
@@ -98,18 +132,181 @@ public class OrderService {
         return orderRepository.findAll(pageable);
     }
 
+    @Transactional
     public Order updateOrderStatus(Long id, Order.OrderStatus status) {
+        return updateOrderStatus(id, status, null, null);
+    }
+
+    @Transactional
+    public Order updateOrderStatus(Long id, Order.OrderStatus status, Long expectedVersion, String changedBy) {
         Order order = getOrderById(id);
+
+        // Reject edits made against a stale copy of the order; concurrent writers are caught by @Version on flush
+        if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Order.class, id);
+        }
+
+        Order.OrderStatus currentStatus = order.getStatus();
+        if (!currentStatus.canTransitionTo(status)) {
+            throw new RuntimeException("Cannot change order status from " + currentStatus + " to " + status);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
         order.setStatus(status);
-        order.setUpdatedAt(LocalDateTime.now());
+        order.setUpdatedAt(now);
 
         if (status == Order.OrderStatus.SHIPPED) {
-            order.setEstimatedDelivery(LocalDateTime.now().plusDays(3));
+            order.setEstimatedDelivery(now.plusDays(3));
+        }
+
+        order = orderRepository.save(order);
+        orderStatusHistoryRepository.save(new OrderStatusHistory(order.getId(), currentStatus, status, changedBy));
+        salesRollupService.recordTransition(List.of(order.getId()), currentStatus, status);
+        eventPublisher.publishEvent(StoreActivityEvent.orderStatusChanged(List.of(order.getId()), currentStatus, status));
+
+        if (status == Order.OrderStatus.DELIVERED) {
+            reviewService.recordDeliveredOrders(List.of(order.getId()));
+        }
+        if (status == Order.OrderStatus.CANCELLED && order.getOfferId() != null) {
+            offerRedemptionService.release(order.getOfferId(), order.getOfferShard(), order.getUser().getId());
+        }
+        return order;
+    }
+
+    @Transactional
+    public Map<String, Object> bulkUpdateOrderStatus(Collection<Long> orderIds, Order.OrderStatus status, String changedBy) {
+        Set<Long> requestedIds = new LinkedHashSet<>(orderIds);
+        Map<Order.OrderStatus, List<Long>> idsByCurrentStatus = new EnumMap<>(Order.OrderStatus.class);
+        Set<Long> foundIds = new HashSet<>();
+
+        for (List<Long> batch : partition(new ArrayList<>(requestedIds))) {
+            for (Object[] row : orderRepository.findStatusesByIdIn(batch)) {
+                Long orderId = (Long) row[0];
+                foundIds.add(orderId);
+                idsByCurrentStatus.computeIfAbsent((Order.OrderStatus) row[1], key -> new ArrayList<>()).add(orderId);
+            }
+        }
+
+        List<Long> updatedIds = new ArrayList<>();
+        List<Map<String, Object>> rejected = new ArrayList<>();
+
+        requestedIds.stream()
+                .filter(orderId -> !foundIds.contains(orderId))
+                .forEach(orderId -> rejected.add(rejection(orderId, "Order not found")));
+
+        // One set-based UPDATE per current status group
+        idsByCurrentStatus.forEach((currentStatus, ids) -> {
+            if (!currentStatus.canTransitionTo(status)) {
+                ids.forEach(orderId -> rejected.add(rejection(orderId,
+                        "Cannot change order status from " + currentStatus + " to " + status)));
+                return;
+            }
+
+            List<Long> transitioned = applyTransition(ids, currentStatus, status, changedBy);
+            updatedIds.addAll(transitioned);
+
+            Set<Long> transitionedSet = new HashSet<>(transitioned);
+            ids.stream()
+                    .filter(orderId -> !transitionedSet.contains(orderId))
+                    .forEach(orderId -> rejected.add(rejection(orderId, "Order status was changed concurrently")));
+        });
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("requested", requestedIds.size());
+        result.put("updated", updatedIds.size());
+        result.put("updatedOrderIds", updatedIds);
+        result.put("rejected", rejected);
+        return result;
+    }
+
+    /**
+     * Moves every order in {@code orderIds} that is still in {@code fromStatus} to {@code toStatus}
+     * and returns the ids that were actually changed. Rows are locked before the update so the
+     * returned ids and the recorded history always match what was written.
+     */
+    @Transactional
+    public List<Long> applyTransition(Collection<Long> orderIds, Order.OrderStatus fromStatus,
+                                      Order.OrderStatus toStatus, String changedBy) {
+        if (!fromStatus.canTransitionTo(toStatus)) {
+            throw new RuntimeException("Cannot change order status from " + fromStatus + " to " + toStatus);
+        }
+
+        List<Long> transitioned = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (List<Long> batch : partition(new ArrayList<>(orderIds))) {
+            List<Long> lockedIds = orderRepository.lockIdsByIdInAndStatus(batch, fromStatus.name());
+            if (lockedIds.isEmpty()) {
+                continue;
+            }
+
+            if (toStatus == Order.OrderStatus.SHIPPED) {
+                orderRepository.updateStatusAndEstimatedDeliveryByIdIn(lockedIds, toStatus, now, now.plusDays(3));
+            } else {
+                orderRepository.updateStatusByIdIn(lockedIds, toStatus, now);
+            }
+            orderStatusHistoryRepository.recordTransitions(lockedIds, fromStatus.name(), toStatus.name(), changedBy, now);
+            salesRollupService.recordTransition(lockedIds, fromStatus, toStatus);
+            eventPublisher.publishEvent(StoreActivityEvent.orderStatusChanged(lockedIds, fromStatus, toStatus));
+            if (toStatus == Order.OrderStatus.DELIVERED) {
+                reviewService.recordDeliveredOrders(lockedIds);
+            }
+            if (toStatus == Order.OrderStatus.CANCELLED) {
+                for (Object[] redemption : orderRepository.findOfferRedemptionsByIdIn(lockedIds)) {
+                    offerRedemptionService.release((Long) redemption[0], (Integer) redemption[1], (Long) redemption[2]);
+                }
+            }
+            transitioned.addAll(lockedIds);
         }
 
+        return transitioned;
+    }
+
+    @Transactional
+    public Order confirmPayment(String orderNumber, String changedBy) {
+        Order order = getOrderByOrderNumber(orderNumber);
+        order.setPaymentStatus(Order.PaymentStatus.COMPLETED);
+
+        // Repeated confirmations (browser retry, webhook) must not fail on an already confirmed order
+        if (order.getStatus() == Order.OrderStatus.PENDING) {
+            return updateOrderStatus(order.getId(), Order.OrderStatus.CONFIRMED, null, changedBy);
+        }
+        order.setUpdatedAt(LocalDateTime.now());
         return orderRepository.save(order);
     }
 
+    @Transactional
+    public Order updatePaymentStatus(Long orderId, Order.PaymentStatus paymentStatus, String changedBy) {
+        Order order = getOrderById(orderId);
+        Order.PaymentStatus currentStatus = order.getPaymentStatus();
+
+        // Gateway notifications can arrive late or out of order: refunds are final and a
+        // stale failure of an earlier attempt must not undo a completed payment
+        if (currentStatus == paymentStatus || currentStatus == Order.PaymentStatus.REFUNDED
+                || (currentStatus == Order.PaymentStatus.COMPLETED && paymentStatus == Order.PaymentStatus.FAILED)) {
+            return order;
+        }
+        if (paymentStatus == Order.PaymentStatus.COMPLETED) {
+            return confirmPayment(order.getOrderNumber(), changedBy);
+        }
+
+        order.setPaymentStatus(paymentStatus);
+        order.setUpdatedAt(LocalDateTime.now());
+        return orderRepository.save(order);
+    }
+
+    @Transactional
+    public Order attachGatewayOrder(Long orderId, String gatewayOrderId) {
+        Order order = getOrderById(orderId);
+        order.setGatewayOrderId(gatewayOrderId);
+        order.setUpdatedAt(LocalDateTime.now());
+        return orderRepository.save(order);
+    }
+
+    public List<OrderStatusHistory> getOrderStatusHistory(Long orderId) {
+        return orderStatusHistoryRepository.findByOrderIdOrderByChangedAtAscIdAsc(orderId);
+    }
+
     public Order updateTrackingNumber(Long id, String trackingNumber) {
         Order order = getOrderById(id);
         order.setTrackingNumber(trackingNumber);
@@ -117,6 +314,21 @@ public class OrderService {
         return orderRepository.save(order);
     }
 
+    private static List<List<Long>> partition(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += TRANSITION_BATCH_SIZE) {
+            batches.add(ids.subList(i, Math.min(i + TRANSITION_BATCH_SIZE, ids.size())));
+        }
+        return batches;
+    }
+
+    private static Map<String, Object> rejection(Long orderId, String reason) {
+        Map<String, Object> rejection = new HashMap<>();
+        rejection.put("orderId", orderId);
+        rejection.put("reason", reason);
+        return rejection;
+    }
+
     private String generateOrderNumber() {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
         return "JW-" + timestamp;
@@ -0,0 +1,165 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.Order;
+import com.jewelcca.exception.PaymentGatewayException;
+import com.jewelcca.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Settles online orders whose payment never got verified. Pending orders are scanned in id order
+ * in fixed-size chunks; each chunk asks the gateway for the payment state of its orders in parallel
+ * (bounded by the reconciliation executor and the gateway bulkhead) and writes the outcome with
+ * set-based updates: paid orders are confirmed, abandoned ones are marked FAILED and cancelled.
+ * Progress is checkpointed in a DB lease, so only one node runs the job at a time and a restarted
+ * job resumes after the last completed chunk.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    private static final String JOB_NAME = "payment-reconciliation";
+
+    @Value("${payment.reconciliation.chunk-size}")
+    private int chunkSize;
+
+    @Value("${payment.reconciliation.grace-minutes}")
+    private long graceMinutes;
+
+    @Value("${payment.reconciliation.abandon-after-hours}")
+    private long abandonAfterHours;
+
+    @Value("${payment.reconciliation.lease-minutes}")
+    private long leaseMinutes;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private RazorpayGateway razorpayGateway;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("reconciliationExecutor")
+    private ThreadPoolTaskExecutor reconciliationExecutor;
+
+    @Scheduled(cron = "${payment.reconciliation.cron}")
+    public void reconcilePendingPayments() {
+        Duration lease = Duration.ofMinutes(leaseMinutes);
+        if (!jobLeaseService.tryAcquire(JOB_NAME, lease)) {
+            return;
+        }
+
+        try {
+            long checkpoint = jobLeaseService.getCheckpoint(JOB_NAME);
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime createdBefore = now.minusMinutes(graceMinutes);
+            LocalDateTime abandonedBefore = now.minusHours(abandonAfterHours);
+
+            while (true) {
+                List<Object[]> chunk = orderRepository.findPaymentsToReconcile(Order.PaymentStatus.PENDING,
+                        Order.PaymentMethod.COD, checkpoint, createdBefore, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    // Full pass done, the next run starts from the beginning again
+                    jobLeaseService.checkpoint(JOB_NAME, 0L, lease);
+                    return;
+                }
+
+                reconcileChunk(chunk, abandonedBefore);
+
+                checkpoint = (Long) chunk.get(chunk.size() - 1)[0];
+                if (!jobLeaseService.checkpoint(JOB_NAME, checkpoint, lease)) {
+                    log.warn("Lost the {} lease after order {}, stopping", JOB_NAME, checkpoint);
+                    return;
+                }
+            }
+        } finally {
+            jobLeaseService.release(JOB_NAME);
+        }
+    }
+
+    private void reconcileChunk(List<Object[]> chunk, LocalDateTime abandonedBefore) {
+        List<CompletableFuture<Order.PaymentStatus>> lookups = new ArrayList<>(chunk.size());
+        for (Object[] row : chunk) {
+            String gatewayOrderId = (String) row[1];
+            LocalDateTime createdAt = (LocalDateTime) row[2];
+            lookups.add(CompletableFuture.supplyAsync(
+                    () -> resolvePaymentStatus(gatewayOrderId, createdAt, abandonedBefore), reconciliationExecutor));
+        }
+        CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0])).join();
+
+        List<Long> paidIds = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Order.PaymentStatus status = lookups.get(i).join();
+            if (status == Order.PaymentStatus.COMPLETED) {
+                paidIds.add((Long) chunk.get(i)[0]);
+            } else if (status == Order.PaymentStatus.FAILED) {
+                failedIds.add((Long) chunk.get(i)[0]);
+            }
+        }
+        if (paidIds.isEmpty() && failedIds.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!paidIds.isEmpty()) {
+                orderRepository.updatePaymentStatusByIdIn(paidIds, Order.PaymentStatus.PENDING, Order.PaymentStatus.COMPLETED, now);
+                orderService.applyTransition(paidIds, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, JOB_NAME);
+            }
+            if (!failedIds.isEmpty()) {
+                orderRepository.updatePaymentStatusByIdIn(failedIds, Order.PaymentStatus.PENDING, Order.PaymentStatus.FAILED, now);
+                // Cancelling runs the same release hooks as any other cancellation (coupon redemptions)
+                orderService.applyTransition(failedIds, Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED, JOB_NAME);
+            }
+        });
+        log.info("Payment reconciliation settled {} paid and {} abandoned orders", paidIds.size(), failedIds.size());
+    }
+
+    /**
+     * @return the status to record, or {@code null} to leave the order pending for a later run
+     */
+    private Order.PaymentStatus resolvePaymentStatus(String gatewayOrderId, LocalDateTime createdAt,
+                                                     LocalDateTime abandonedBefore) {
+        boolean abandoned = createdAt.isBefore(abandonedBefore);
+        if (gatewayOrderId == null) {
+            return abandoned ? Order.PaymentStatus.FAILED : null;
+        }
+
+        try {
+            Map<String, Object> gatewayOrder = razorpayGateway.fetchOrder(gatewayOrderId);
+            if ("paid".equals(gatewayOrder.get("status"))) {
+                return Order.PaymentStatus.COMPLETED;
+            }
+            return abandoned ? Order.PaymentStatus.FAILED : null;
+        } catch (PaymentGatewayException e) {
+            log.debug("Could not fetch gateway order {}", gatewayOrderId, e);
+            return null;
+        }
+    }
+}
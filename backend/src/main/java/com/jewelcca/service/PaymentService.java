@@ -1,44 +1,38 @@
 package com.jewelcca.service;
 
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
 import com.razorpay.Utils;
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class PaymentService {
 
-    @Value("${payment.razorpay.key-id}")
-    private String razorpayKeyId;
-
     @Value("${payment.razorpay.key-secret}")
     private String razorpayKeySecret;
 
     @Value("${payment.razorpay.webhook-secret}")
     private String webhookSecret;
 
-    public Map<String, Object> createRazorpayOrder(String orderId, BigDecimal amount, String currency) throws RazorpayException {
-        RazorpayClient razorpayClient = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
-
-        JSONObject orderRequest = new JSONObject();
-        orderRequest.put("amount", amount.multiply(BigDecimal.valueOf(100)).intValue()); // Amount in paise
-        orderRequest.put("currency", currency);
-        orderRequest.put("receipt", orderId);
+    @Autowired
+    private RazorpayGateway razorpayGateway;
 
-        Order order = razorpayClient.orders.create(orderRequest);
+    public Map<String, Object> createRazorpayOrder(String orderId, BigDecimal amount, String currency) {
+        long amountInPaise = amount.multiply(BigDecimal.valueOf(100)).setScale(0, RoundingMode.HALF_UP).longValue();
+        Map<String, Object> order = razorpayGateway.createOrder(amountInPaise, currency, orderId);
 
         Map<String, Object> response = new HashMap<>();
         response.put("razorpayOrderId", order.get("id"));
         response.put("amount", order.get("amount"));
         response.put("currency", order.get("currency"));
-        response.put("keyId", razorpayKeyId);
+        response.put("keyId", razorpayGateway.getKeyId());
         
         return response;
     }
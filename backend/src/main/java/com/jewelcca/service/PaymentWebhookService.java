@@ -0,0 +1,199 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.Order;
+import com.jewelcca.entity.PaymentWebhookEvent;
+import com.jewelcca.repository.OrderRepository;
+import com.jewelcca.repository.PaymentWebhookEventRepository;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Webhook inbox: {@link #ingest} only persists the verified payload (deduplicated on the gateway
+ * event id) so the gateway gets its acknowledgement immediately. A scheduled drain claims pending
+ * events in batches, groups them per gateway order and applies each group in arrival order on the
+ * webhook executor, so events for one order never race while different orders proceed in parallel.
+ */
+@Service
+public class PaymentWebhookService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentWebhookService.class);
+
+    private static final String CHANGED_BY = "payment-webhook";
+
+    @Value("${payment.webhook.batch-size}")
+    private int batchSize;
+
+    @Value("${payment.webhook.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${payment.webhook.stale-claim-ms}")
+    private long staleClaimMs;
+
+    @Autowired
+    private PaymentWebhookEventRepository webhookEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("webhookExecutor")
+    private ThreadPoolTaskExecutor webhookExecutor;
+
+    /**
+     * @return {@code false} when the event was already received before
+     */
+    public boolean ingest(String eventId, String payload) {
+        JSONObject json = new JSONObject(payload);
+        String id = eventId != null && !eventId.isBlank() ? eventId : sha256(payload);
+        return webhookEventRepository.insertIfAbsent(id, json.optString("event", null),
+                extractGatewayOrderId(json), payload, LocalDateTime.now()) > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhook.poll-interval-ms}")
+    public void drainInbox() {
+        List<Long> claimed;
+        do {
+            claimed = claimBatch();
+            if (claimed.isEmpty()) {
+                return;
+            }
+
+            Map<String, List<PaymentWebhookEvent>> eventsByOrder = new LinkedHashMap<>();
+            for (PaymentWebhookEvent event : webhookEventRepository.findByIdInOrderByIdAsc(claimed)) {
+                String key = event.getGatewayOrderId() != null ? event.getGatewayOrderId() : "event-" + event.getId();
+                eventsByOrder.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+            }
+
+            CompletableFuture<?>[] groups = eventsByOrder.values().stream()
+                    .map(events -> CompletableFuture.runAsync(() -> processInOrder(events), webhookExecutor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(groups).join();
+        } while (claimed.size() == batchSize);
+    }
+
+    private List<Long> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = webhookEventRepository.lockPendingIds(now.minusNanos(staleClaimMs * 1_000_000), batchSize);
+            if (!ids.isEmpty()) {
+                webhookEventRepository.markClaimed(ids, PaymentWebhookEvent.Status.PROCESSING, now);
+            }
+            return ids;
+        });
+    }
+
+    private void processInOrder(List<PaymentWebhookEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            PaymentWebhookEvent event = events.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    PaymentWebhookEvent.Status outcome = apply(event);
+                    webhookEventRepository.markCompleted(event.getId(), outcome, LocalDateTime.now());
+                });
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply payment webhook event {} ({})", event.getEventId(), event.getEventType(), e);
+                recordFailure(event, e);
+
+                // Later events for the same order wait for the next drain so they are never applied out of order
+                List<Long> remaining = events.subList(i + 1, events.size()).stream().map(PaymentWebhookEvent::getId).toList();
+                if (!remaining.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status ->
+                            webhookEventRepository.updateStatusByIdIn(remaining, PaymentWebhookEvent.Status.RECEIVED));
+                }
+                return;
+            }
+        }
+    }
+
+    private PaymentWebhookEvent.Status apply(PaymentWebhookEvent event) {
+        Order.PaymentStatus paymentStatus = paymentStatusFor(event.getEventType());
+        if (paymentStatus == null || event.getGatewayOrderId() == null) {
+            return PaymentWebhookEvent.Status.IGNORED;
+        }
+
+        Optional<Order> order = orderRepository.findByGatewayOrderId(event.getGatewayOrderId());
+        if (order.isEmpty()) {
+            return PaymentWebhookEvent.Status.IGNORED;
+        }
+
+        orderService.updatePaymentStatus(order.get().getId(), paymentStatus, CHANGED_BY);
+        return PaymentWebhookEvent.Status.PROCESSED;
+    }
+
+    private void recordFailure(PaymentWebhookEvent event, RuntimeException e) {
+        int attempts = event.getAttempts() + 1;
+        PaymentWebhookEvent.Status status = attempts >= maxAttempts
+                ? PaymentWebhookEvent.Status.FAILED
+                : PaymentWebhookEvent.Status.RECEIVED;
+        String error = String.valueOf(e.getMessage());
+        String truncated = error.length() > 500 ? error.substring(0, 500) : error;
+        transactionTemplate.executeWithoutResult(tx ->
+                webhookEventRepository.markAttemptFailed(event.getId(), status, attempts, truncated));
+    }
+
+    private static Order.PaymentStatus paymentStatusFor(String eventType) {
+        if (eventType == null) {
+            return null;
+        }
+        switch (eventType) {
+            case "payment.captured":
+            case "order.paid":
+                return Order.PaymentStatus.COMPLETED;
+            case "payment.failed":
+                return Order.PaymentStatus.FAILED;
+            case "refund.processed":
+                return Order.PaymentStatus.REFUNDED;
+            default:
+                return null;
+        }
+    }
+
+    private static String extractGatewayOrderId(JSONObject json) {
+        JSONObject payload = json.optJSONObject("payload");
+        if (payload == null) {
+            return null;
+        }
+        JSONObject payment = payload.optJSONObject("payment");
+        if (payment != null && payment.optJSONObject("entity") != null) {
+            String orderId = payment.getJSONObject("entity").optString("order_id", null);
+            if (orderId != null) {
+                return orderId;
+            }
+        }
+        JSONObject order = payload.optJSONObject("order");
+        if (order != null && order.optJSONObject("entity") != null) {
+            return order.getJSONObject("entity").optString("id", null);
+        }
+        return null;
+    }
+
+    private static String sha256(String payload) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
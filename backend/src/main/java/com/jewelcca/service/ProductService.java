@@ -1,8 +1,15 @@
 package com.jewelcca.service;
 
+import com.jewelcca.dto.ProductDetailResponse;
+import com.jewelcca.dto.RatingSummary;
+import com.jewelcca.dto.ReviewResponse;
 import com.jewelcca.entity.Product;
+import com.jewelcca.event.ProductChangeEvent;
+import com.jewelcca.event.StoreActivityEvent;
 import com.jewelcca.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -10,6 +17,7 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ProductService {
@@ -17,6 +25,27 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${inventory.low-stock-threshold}")
+    private int defaultLowStockThreshold;
+
+    // Publishes LOW_STOCK for products that just went from at least their threshold to below it
+    public void publishLowStockCrossings(Map<Long, Integer> unitsRemoved) {
+        for (Object[] row : productRepository.findStockLevelsByIdIn(unitsRemoved.keySet(), defaultLowStockThreshold)) {
+            Long productId = (Long) row[0];
+            int stock = (Integer) row[2];
+            int threshold = ((Number) row[3]).intValue();
+            if (stock < threshold && stock + unitsRemoved.get(productId) >= threshold) {
+                eventPublisher.publishEvent(StoreActivityEvent.lowStock(productId, (String) row[1], stock, threshold));
+            }
+        }
+    }
+
     public Page<Product> getAllProducts(Pageable pageable) {
         return productRepository.findAll(pageable);
     }
@@ -26,6 +55,17 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
+    /**
+     * Product with its rating summary and the first page of reviews, served from the review
+     * first-page cache, so the call costs the same few queries however many reviews exist;
+     * later pages are served by the paged reviews endpoint.
+     */
+    public ProductDetailResponse getProductDetail(Long id) {
+        Product product = getProductById(id);
+        Page<ReviewResponse> reviews = reviewService.getProductReviews(id, "newest", 0, ReviewService.DEFAULT_PAGE_SIZE);
+        return new ProductDetailResponse(product, RatingSummary.of(product), reviews);
+    }
+
     public Page<Product> getProductsByCategory(String categorySlug, Pageable pageable) {
         return productRepository.findByCategorySlug(categorySlug, pageable);
     }
@@ -52,6 +92,8 @@ public class ProductService {
 
     public Product updateProduct(Long id, Product productUpdate) {
         Product product = getProductById(id);
+        BigDecimal previousPrice = product.getPrice();
+        boolean wasInStock = product.isInStock();
         
         if (productUpdate.getName() != null) {
             product.setName(productUpdate.getName());
@@ -90,7 +132,16 @@ public class ProductService {
         product.setInStock(productUpdate.getStockQuantity() != null ? productUpdate.getStockQuantity() > 0 : product.isInStock());
         product.setUpdatedAt(LocalDateTime.now());
         
-        return productRepository.save(product);
+        product = productRepository.save(product);
+
+        // Wishlist alerts are fanned out asynchronously, see WishlistAlertService
+        if (previousPrice != null && product.getPrice() != null && product.getPrice().compareTo(previousPrice) < 0) {
+            eventPublisher.publishEvent(ProductChangeEvent.priceDrop(product.getId(), previousPrice, product.getPrice()));
+        }
+        if (!wasInStock && product.isInStock()) {
+            eventPublisher.publishEvent(ProductChangeEvent.backInStock(product.getId(), product.getPrice()));
+        }
+        return product;
     }
 
     public void deleteProduct(Long id) {
@@ -0,0 +1,100 @@
+package com.jewelcca.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of which products each user has received in a delivered order. Every user maps
+ * to a sorted, duplicate-free {@code long[]} of product ids; arrays are replaced, never mutated,
+ * so lookups run without locking. The index is rebuilt from the database at startup and only ever
+ * grows afterwards, because DELIVERED is a terminal order status.
+ */
+@Component
+public class PurchaseIndex {
+
+    private volatile Map<Long, long[]> productIdsByUser = new ConcurrentHashMap<>();
+
+    public boolean hasPurchased(Long userId, Long productId) {
+        if (userId == null || productId == null) {
+            return false;
+        }
+        long[] productIds = productIdsByUser.get(userId);
+        return productIds != null && Arrays.binarySearch(productIds, productId) >= 0;
+    }
+
+    public int size() {
+        return productIdsByUser.size();
+    }
+
+    /**
+     * Replaces the index with the given (userId, productId) rows, which must be ordered by user id.
+     */
+    public void rebuild(Stream<Object[]> userProductRows) {
+        Map<Long, long[]> rebuilt = new ConcurrentHashMap<>();
+        long[] buffer = new long[16];
+        int count = 0;
+        Long currentUser = null;
+
+        for (Object[] row : (Iterable<Object[]>) userProductRows::iterator) {
+            Long userId = (Long) row[0];
+            if (!userId.equals(currentUser)) {
+                if (currentUser != null) {
+                    rebuilt.put(currentUser, sortedDistinct(buffer, count));
+                }
+                currentUser = userId;
+                count = 0;
+            }
+            if (count == buffer.length) {
+                buffer = Arrays.copyOf(buffer, count * 2);
+            }
+            buffer[count++] = (Long) row[1];
+        }
+        if (currentUser != null) {
+            rebuilt.put(currentUser, sortedDistinct(buffer, count));
+        }
+
+        productIdsByUser = rebuilt;
+    }
+
+    /**
+     * Adds newly delivered (userId, productId) pairs.
+     */
+    public void record(Collection<Object[]> userProductRows) {
+        Map<Long, List<Long>> added = new HashMap<>();
+        for (Object[] row : userProductRows) {
+            added.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add((Long) row[1]);
+        }
+
+        added.forEach((userId, productIds) -> {
+            // merge stores the value as-is for a first-time buyer, so it has to be sorted already
+            long[] values = productIds.stream().mapToLong(Long::longValue).toArray();
+            productIdsByUser.merge(userId, sortedDistinct(values, values.length), PurchaseIndex::union);
+        });
+    }
+
+    private static long[] union(long[] existing, long[] added) {
+        long[] merged = Arrays.copyOf(existing, existing.length + added.length);
+        System.arraycopy(added, 0, merged, existing.length, added.length);
+        return sortedDistinct(merged, merged.length);
+    }
+
+    private static long[] sortedDistinct(long[] values, int length) {
+        long[] sorted = Arrays.copyOf(values, length);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+    }
+}
@@ -0,0 +1,158 @@
+package com.jewelcca.service;
+
+import com.jewelcca.exception.PaymentGatewayException;
+import com.jewelcca.util.CircuitBreaker;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Shared Razorpay REST client. One pooled connection provider is reused for every call, each call
+ * is bounded by connect/response timeouts, at most {@code max-concurrent-calls} requests may be in
+ * flight (callers beyond that wait briefly and are then rejected), and a circuit breaker fails fast
+ * while the gateway keeps erroring, so a slow gateway cannot exhaust the servlet threads.
+ */
+@Component
+public class RazorpayGateway {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_MAP =
+            new ParameterizedTypeReference<Map<String, Object>>() {};
+
+    @Value("${payment.razorpay.base-url}")
+    private String baseUrl;
+
+    @Value("${payment.razorpay.key-id}")
+    private String razorpayKeyId;
+
+    @Value("${payment.razorpay.key-secret}")
+    private String razorpayKeySecret;
+
+    @Value("${payment.razorpay.connect-timeout-ms}")
+    private int connectTimeoutMs;
+
+    @Value("${payment.razorpay.read-timeout-ms}")
+    private long readTimeoutMs;
+
+    @Value("${payment.razorpay.max-concurrent-calls}")
+    private int maxConcurrentCalls;
+
+    @Value("${payment.razorpay.bulkhead-wait-ms}")
+    private long bulkheadWaitMs;
+
+    @Value("${payment.razorpay.circuit-breaker.failure-threshold}")
+    private int failureThreshold;
+
+    @Value("${payment.razorpay.circuit-breaker.open-duration-ms}")
+    private long openDurationMs;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    private WebClient webClient;
+    private Semaphore bulkhead;
+    private CircuitBreaker circuitBreaker;
+
+    @PostConstruct
+    void init() {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("razorpay")
+                .maxConnections(maxConcurrentCalls)
+                .pendingAcquireTimeout(Duration.ofMillis(connectTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+
+        webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeaders(headers -> headers.setBasicAuth(razorpayKeyId, razorpayKeySecret))
+                .build();
+        bulkhead = new Semaphore(maxConcurrentCalls);
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+    }
+
+    public Map<String, Object> createOrder(long amountInPaise, String currency, String receipt) {
+        Map<String, Object> orderRequest = new HashMap<>();
+        orderRequest.put("amount", amountInPaise);
+        orderRequest.put("currency", currency);
+        orderRequest.put("receipt", receipt);
+
+        return call(client -> client.post()
+                .uri("/orders")
+                .bodyValue(orderRequest)
+                .retrieve()
+                .bodyToMono(JSON_MAP));
+    }
+
+    public Map<String, Object> fetchOrder(String gatewayOrderId) {
+        return call(client -> client.get()
+                .uri("/orders/{id}", gatewayOrderId)
+                .retrieve()
+                .bodyToMono(JSON_MAP));
+    }
+
+    public String getKeyId() {
+        return razorpayKeyId;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private Map<String, Object> call(Function<WebClient, Mono<Map<String, Object>>> request) {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while waiting for the payment gateway", e);
+        }
+        if (!acquired) {
+            throw new PaymentGatewayException("Payment gateway is busy, please try again");
+        }
+
+        try {
+            if (!circuitBreaker.allowRequest()) {
+                throw new PaymentGatewayException("Payment gateway is temporarily unavailable");
+            }
+            try {
+                Map<String, Object> response = request.apply(webClient)
+                        .block(Duration.ofMillis(connectTimeoutMs + readTimeoutMs));
+                circuitBreaker.recordSuccess();
+                return response;
+            } catch (WebClientResponseException e) {
+                // 4xx means the gateway is healthy and rejected this particular request
+                if (e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    circuitBreaker.recordFailure();
+                } else {
+                    circuitBreaker.recordSuccess();
+                }
+                throw new PaymentGatewayException("Payment gateway returned " + e.getStatusCode().value(), e);
+            } catch (RuntimeException e) {
+                circuitBreaker.recordFailure();
+                throw new PaymentGatewayException("Payment gateway call failed", e);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
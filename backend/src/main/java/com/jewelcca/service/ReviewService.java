@@ -1,19 +1,35 @@
 package com.jewelcca.service;
 
+import com.jewelcca.dto.RatingSummary;
+import com.jewelcca.dto.ReviewResponse;
+import com.jewelcca.entity.Order;
 import com.jewelcca.entity.Product;
 import com.jewelcca.entity.Review;
 import com.jewelcca.entity.User;
+import com.jewelcca.repository.OrderRepository;
 import com.jewelcca.repository.ProductRepository;
 import com.jewelcca.repository.ReviewRepository;
 import com.jewelcca.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReviewService {
@@ -27,12 +43,90 @@ public class ReviewService {
     @Autowired
     private UserRepository userRepository;
 
-    public Page<Review> getProductReviews(Long productId, Pageable pageable) {
-        return reviewRepository.findByProductId(productId, pageable);
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PurchaseIndex purchaseIndex;
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+
+    // First page per product and sort order; only ReviewService writes for that product evict it
+    private final Map<String, Page<ReviewResponse>> firstPageCache = new ConcurrentHashMap<>();
+    private final Map<Long, Long> firstPageGenerations = new ConcurrentHashMap<>();
+
+    public Page<ReviewResponse> getProductReviews(Long productId, String sort, int page, int size) {
+        ReviewSort reviewSort = ReviewSort.from(sort);
+        Pageable pageable = PageRequest.of(page, size, reviewSort.sort);
+        if (page != 0 || size != DEFAULT_PAGE_SIZE) {
+            return loadReviewPage(productId, pageable);
+        }
+
+        String key = productId + ":" + reviewSort.name();
+        Page<ReviewResponse> cached = firstPageCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = firstPageGenerations.getOrDefault(productId, 0L);
+        Page<ReviewResponse> loaded = loadReviewPage(productId, pageable);
+        // Skip caching if a write for this product was committed while the page was loading
+        firstPageCache.compute(key, (k, existing) ->
+                firstPageGenerations.getOrDefault(productId, 0L) == generation ? loaded : existing);
+        return loaded;
+    }
+
+    public RatingSummary getRatingSummary(Long productId) {
+        return productRepository.findRatingSummary(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+
+    @Transactional
+    public int rebuildRatingSummaries() {
+        return productRepository.rebuildRatingAggregates();
+    }
+
+    // First start after upgrading: existing products have a review count but zeroed aggregates
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildRatingSummariesIfInconsistent() {
+        if (productRepository.existsInconsistentRatingAggregates()) {
+            rebuildRatingSummaries();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadPurchaseIndex() {
+        try (Stream<Object[]> pairs = orderRepository.streamUserProductPairsByStatus(Order.OrderStatus.DELIVERED)) {
+            purchaseIndex.rebuild(pairs);
+        }
+        reviewRepository.markAllVerifiedPurchases();
+    }
+
+    /**
+     * Called when orders reach DELIVERED: flags the buyers' existing reviews of those products as
+     * verified and adds the purchases to the in-memory index once the transaction commits.
+     */
+    @Transactional
+    public void recordDeliveredOrders(Collection<Long> orderIds) {
+        List<Object[]> pairs = orderRepository.findUserProductPairsByIdIn(orderIds);
+        if (pairs.isEmpty()) {
+            return;
+        }
+        reviewRepository.markVerifiedPurchasesForOrders(orderIds);
+
+        Set<Long> productIds = pairs.stream().map(pair -> (Long) pair[1]).collect(Collectors.toSet());
+        afterCommit(() -> {
+            purchaseIndex.record(pairs);
+            productIds.forEach(this::evictFirstPages);
+        });
     }
 
     @Transactional
     public Review addReview(Long productId, Long userId, Integer rating, String comment) {
+        validateRating(rating);
+
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         
@@ -44,16 +138,19 @@ public class ReviewService {
         }
 
         Review review = new Review(product, user, rating, comment);
+        review.setVerifiedPurchase(purchaseIndex.hasPurchased(userId, productId));
         review = reviewRepository.save(review);
 
         // Update product rating
-        updateProductRating(productId);
+        applyRatingDelta(productId, null, rating);
 
         return review;
     }
 
     @Transactional
     public Review updateReview(Long reviewId, Long userId, Integer rating, String comment) {
+        validateRating(rating);
+
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
 
@@ -61,12 +158,13 @@ public class ReviewService {
             throw new RuntimeException("You can only update your own reviews");
         }
 
+        Integer previousRating = review.getRating();
         review.setRating(rating);
         review.setComment(comment);
         review = reviewRepository.save(review);
 
         // Update product rating
-        updateProductRating(review.getProduct().getId());
+        applyRatingDelta(review.getProduct().getId(), previousRating, rating);
 
         return review;
     }
@@ -84,28 +182,81 @@ public class ReviewService {
         reviewRepository.delete(review);
 
         // Update product rating
-        updateProductRating(productId);
+        applyRatingDelta(productId, review.getRating(), null);
     }
 
-    private void updateProductRating(Long productId) {
-        Product product = productRepository.findById(productId)
+    private Page<ReviewResponse> loadReviewPage(Long productId, Pageable pageable) {
+        Integer total = productRepository.findReviewCountById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
+        List<ReviewResponse> reviews = reviewRepository.findResponsesByProductId(productId, pageable);
+        return new PageImpl<>(reviews, pageable, total != null ? total : 0);
+    }
 
-        Page<Review> reviews = reviewRepository.findByProductId(productId, Pageable.unpaged());
-        
-        if (reviews.getTotalElements() > 0) {
-            double averageRating = reviews.getContent().stream()
-                    .mapToInt(Review::getRating)
-                    .average()
-                    .orElse(0.0);
-            
-            product.setRating(BigDecimal.valueOf(averageRating).setScale(2, RoundingMode.HALF_UP));
-            product.setReviewCount((int) reviews.getTotalElements());
+    private void evictFirstPagesAfterCommit(Long productId) {
+        afterCommit(() -> evictFirstPages(productId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
         } else {
-            product.setRating(BigDecimal.ZERO);
-            product.setReviewCount(0);
+            action.run();
         }
+    }
 
-        productRepository.save(product);
+    private void evictFirstPages(Long productId) {
+        firstPageGenerations.merge(productId, 1L, Long::sum);
+        for (ReviewSort reviewSort : ReviewSort.values()) {
+            firstPageCache.remove(productId + ":" + reviewSort.name());
+        }
+    }
+
+    private void validateRating(Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new RuntimeException("Rating must be between 1 and 5");
+        }
+    }
+
+    // Moves the product's rating aggregates by one review in a single row update, no review scan
+    private void applyRatingDelta(Long productId, Integer removedRating, Integer addedRating) {
+        int[] histogramDelta = new int[6];
+        long sumDelta = 0;
+        int countDelta = 0;
+
+        if (removedRating != null) {
+            histogramDelta[removedRating]--;
+            sumDelta -= removedRating;
+            countDelta--;
+        }
+        if (addedRating != null) {
+            histogramDelta[addedRating]++;
+            sumDelta += addedRating;
+            countDelta++;
+        }
+
+        productRepository.applyRatingDelta(productId, sumDelta, countDelta,
+                histogramDelta[1], histogramDelta[2], histogramDelta[3], histogramDelta[4], histogramDelta[5]);
+        evictFirstPagesAfterCommit(productId);
+    }
+
+    private enum ReviewSort {
+        // Verified purchases rank first in either order
+        NEWEST(Sort.by(Sort.Direction.DESC, "verifiedPurchase", "createdAt")),
+        RATING(Sort.by(Sort.Direction.DESC, "verifiedPurchase", "rating", "createdAt"));
+
+        private final Sort sort;
+
+        ReviewSort(Sort sort) {
+            this.sort = sort;
+        }
+
+        private static ReviewSort from(String value) {
+            return value != null && value.equalsIgnoreCase("rating") ? RATING : NEWEST;
+        }
     }
 }
\ No newline at end of file
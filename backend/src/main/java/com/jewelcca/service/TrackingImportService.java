@@ -0,0 +1,182 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.Order;
+import com.jewelcca.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Applies carrier manifests (orderNumber,trackingNumber per line) in fixed-size chunks so memory
+ * stays flat regardless of file size. Each chunk resolves its order numbers with one IN query,
+ * ships confirmed orders with one set-based transition and writes tracking numbers with one JDBC
+ * batch, then streams its rows to the report before the next chunk is read.
+ */
+@Service
+public class TrackingImportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String UPDATE_TRACKING_SQL =
+            "UPDATE orders SET tracking_number = ?, updated_at = ?, version = version + 1 WHERE id = ? AND status = ?";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public void importTrackingNumbers(InputStream input, Writer report, String changedBy) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        report.write("line,orderNumber,trackingNumber,result\n");
+
+        List<TrackingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        int lineNumber = 0;
+        boolean firstRow = true;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            String[] columns = line.split(",", -1);
+            // The header is the first non-blank line, wherever leading blank lines put it
+            boolean header = firstRow && unquote(columns[0]).equalsIgnoreCase("orderNumber");
+            firstRow = false;
+            if (header) {
+                continue;
+            }
+
+            TrackingRow row = new TrackingRow(lineNumber, unquote(columns[0]), columns.length > 1 ? unquote(columns[1]) : "");
+            if (columns.length != 2 || row.orderNumber.isEmpty() || row.trackingNumber.isEmpty()) {
+                row.result = "MALFORMED";
+            }
+            chunk.add(row);
+
+            if (chunk.size() == CHUNK_SIZE) {
+                processChunk(chunk, changedBy);
+                writeReport(chunk, report);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, changedBy);
+            writeReport(chunk, report);
+        }
+        report.flush();
+    }
+
+    private void processChunk(List<TrackingRow> chunk, String changedBy) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> orderNumbers = new HashSet<>();
+            chunk.stream().filter(row -> row.result == null).forEach(row -> orderNumbers.add(row.orderNumber));
+            if (orderNumbers.isEmpty()) {
+                return;
+            }
+
+            Map<String, Long> orderIds = new HashMap<>();
+            Map<String, Order.OrderStatus> orderStatuses = new HashMap<>();
+            for (Object[] ref : orderRepository.findRefsByOrderNumberIn(orderNumbers)) {
+                orderIds.put((String) ref[0], (Long) ref[1]);
+                orderStatuses.put((String) ref[0], (Order.OrderStatus) ref[2]);
+            }
+
+            List<TrackingRow> updatable = new ArrayList<>();
+            Set<Long> confirmedIds = new HashSet<>();
+            for (TrackingRow row : chunk) {
+                if (row.result != null) {
+                    continue;
+                }
+                Order.OrderStatus orderStatus = orderStatuses.get(row.orderNumber);
+                if (orderStatus == null) {
+                    row.result = "NOT_FOUND";
+                } else if (orderStatus == Order.OrderStatus.CONFIRMED || orderStatus == Order.OrderStatus.SHIPPED) {
+                    row.orderId = orderIds.get(row.orderNumber);
+                    updatable.add(row);
+                    if (orderStatus == Order.OrderStatus.CONFIRMED) {
+                        confirmedIds.add(row.orderId);
+                    }
+                } else {
+                    row.result = "INVALID_STATUS";
+                }
+            }
+            if (updatable.isEmpty()) {
+                return;
+            }
+
+            Set<Long> shippedIds = confirmedIds.isEmpty() ? Set.of() : new HashSet<>(orderService.applyTransition(
+                    confirmedIds, Order.OrderStatus.CONFIRMED, Order.OrderStatus.SHIPPED, changedBy));
+
+            // Guarded on SHIPPED so an order cancelled mid-import never receives a tracking number
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_TRACKING_SQL, updatable, CHUNK_SIZE, (ps, row) -> {
+                ps.setString(1, row.trackingNumber);
+                ps.setTimestamp(2, now);
+                ps.setLong(3, row.orderId);
+                ps.setString(4, Order.OrderStatus.SHIPPED.name());
+            });
+
+            int index = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    TrackingRow row = updatable.get(index++);
+                    if (count == 0) {
+                        row.result = "INVALID_STATUS";
+                    } else {
+                        row.result = shippedIds.contains(row.orderId) ? "SHIPPED" : "UPDATED";
+                    }
+                }
+            }
+        });
+    }
+
+    private void writeReport(List<TrackingRow> chunk, Writer report) throws IOException {
+        for (TrackingRow row : chunk) {
+            // Order and tracking numbers come from the uploaded file, so they are escaped like exports
+            report.write(row.lineNumber + "," + ExportService.csvField(row.orderNumber) + ","
+                    + ExportService.csvField(row.trackingNumber) + "," + row.result + "\n");
+        }
+        report.flush();
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            trimmed = trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    private static class TrackingRow {
+        private final int lineNumber;
+        private final String orderNumber;
+        private final String trackingNumber;
+        private Long orderId;
+        private String result;
+
+        private TrackingRow(int lineNumber, String orderNumber, String trackingNumber) {
+            this.lineNumber = lineNumber;
+            this.orderNumber = orderNumber;
+            this.trackingNumber = trackingNumber;
+        }
+    }
+}
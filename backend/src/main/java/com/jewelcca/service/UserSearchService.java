@@ -0,0 +1,180 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.User;
+import com.jewelcca.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Admin user search. Keywords that look like an email or a phone number are prefix searches on
+ * that column, served by {@code text_pattern_ops} btree indexes. Anything else is matched against
+ * one lower-cased "first last email" document through a {@code pg_trgm} GiST index: substring
+ * matches and close misspellings both qualify, and the index hands them out nearest first by
+ * word-similarity distance, so a page never ranks the whole match set. Results are slices rather
+ * than pages, as counting every fuzzy match would cost more than the page itself, and free-text
+ * paging stops at {@link #MAX_FREE_TEXT_RESULTS}. The indexes are created at startup; without
+ * {@code pg_trgm} (or on another database) free-text search falls back to the plain per-column
+ * LIKE query.
+ */
+@Service
+public class UserSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchService.class);
+
+    // Must match the indexed expression exactly for the planner to use the trigram index
+    private static final String SEARCH_DOCUMENT =
+            "lower(coalesce(first_name, '') || ' ' || coalesce(last_name, '') || ' ' || coalesce(email, ''))";
+
+    // Trigrams need three characters, shorter keywords could not use the index
+    private static final int MIN_TRIGRAM_LENGTH = 3;
+
+    // Fuzzy matches this far down are noise, and deeper offsets would walk that much of the index
+    private static final int MAX_FREE_TEXT_RESULTS = 1000;
+
+    private static final Pattern PHONE_PREFIX = Pattern.compile("\\+?[0-9][0-9 ()-]*");
+
+    private static final Map<String, String> PREFIX_INDEXES = Map.of(
+            "idx_user_email_prefix", "ON users (lower(email) text_pattern_ops)",
+            "idx_user_phone_prefix", "ON users (phone text_pattern_ops)");
+
+    private static final String TRIGRAM_INDEX_NAME = "idx_user_search_trgm_gist";
+
+    // GiST rather than GIN: only GiST can return rows ordered by the <<-> distance
+    private static final String TRIGRAM_INDEX = "ON users USING gist ((" + SEARCH_DOCUMENT + ") gist_trgm_ops)";
+
+    // The earlier GIN index, superseded by the GiST one
+    private static final String OLD_TRIGRAM_INDEX_NAME = "idx_user_search_trgm";
+
+    @Value("${admin.user-search.trigram-enabled}")
+    private boolean trigramEnabled;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile boolean trigramAvailable;
+
+    // CONCURRENTLY keeps signups writable while an index is built on a large table
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        PREFIX_INDEXES.forEach(this::createIndex);
+        if (!trigramEnabled) {
+            return;
+        }
+        execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        trigramAvailable = createIndex(TRIGRAM_INDEX_NAME, TRIGRAM_INDEX);
+        if (trigramAvailable) {
+            execute("DROP INDEX CONCURRENTLY IF EXISTS " + OLD_TRIGRAM_INDEX_NAME);
+        } else {
+            log.warn("pg_trgm is not available, user search falls back to LIKE scans");
+        }
+    }
+
+    /**
+     * A CONCURRENTLY build that failed or was interrupted leaves an INVALID index behind, which
+     * IF NOT EXISTS then skips; such a leftover is dropped and built once more.
+     */
+    private boolean createIndex(String name, String definition) {
+        String ddl = "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " " + definition;
+        if (execute(ddl) && isValidIndex(name)) {
+            return true;
+        }
+        return execute("DROP INDEX CONCURRENTLY IF EXISTS " + name) && execute(ddl) && isValidIndex(name);
+    }
+
+    private boolean isValidIndex(String name) {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT bool_and(i.indisvalid) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                    "WHERE c.relname = ?", Boolean.class, name));
+        } catch (DataAccessException e) {
+            log.warn("Could not check the validity of index {}", name, e);
+            return false;
+        }
+    }
+
+    public Slice<User> search(String keyword, Pageable pageable) {
+        String trimmed = keyword == null ? "" : keyword.trim();
+        if (trimmed.isEmpty()) {
+            return userRepository.findAll(pageable);
+        }
+
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        if (PHONE_PREFIX.matcher(trimmed).matches()) {
+            return slice("phone LIKE ?", "phone, id", pageable, escapeLike(trimmed) + "%");
+        }
+        if (lower.contains("@") || lower.length() < MIN_TRIGRAM_LENGTH) {
+            return slice("lower(email) LIKE ?", "lower(email), id", pageable, escapeLike(lower) + "%");
+        }
+        if (!trigramAvailable) {
+            return userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+                    trimmed, trimmed, trimmed, pageable);
+        }
+
+        if (pageable.getOffset() >= MAX_FREE_TEXT_RESULTS) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        // LIKE catches exact substrings, <% catches misspellings; the GiST index answers both and
+        // returns rows nearest first, so the scan stops once one row past the page is found
+        int limit = (int) Math.min(pageable.getPageSize(), MAX_FREE_TEXT_RESULTS - pageable.getOffset());
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE " + SEARCH_DOCUMENT + " LIKE ? OR ? <% " + SEARCH_DOCUMENT +
+                " ORDER BY ? <<-> " + SEARCH_DOCUMENT + ", id LIMIT ? OFFSET ?",
+                Long.class, "%" + escapeLike(lower) + "%", lower, lower, limit + 1, pageable.getOffset());
+        boolean hasNext = ids.size() > limit && pageable.getOffset() + limit < MAX_FREE_TEXT_RESULTS;
+        return new SliceImpl<>(loadInOrder(ids.subList(0, Math.min(ids.size(), limit))), pageable, hasNext);
+    }
+
+    private Slice<User> slice(String where, String orderBy, Pageable pageable, String parameter) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE " + where + " ORDER BY " + orderBy + " LIMIT ? OFFSET ?",
+                Long.class, parameter, pageable.getPageSize() + 1, pageable.getOffset());
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        return new SliceImpl<>(loadInOrder(hasNext ? ids.subList(0, pageable.getPageSize()) : ids), pageable, hasNext);
+    }
+
+    private List<User> loadInOrder(List<Long> ids) {
+        Map<Long, User> byId = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = byId.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    private boolean execute(String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("User search index statement failed: {}", sql, e);
+            return false;
+        }
+    }
+
+    // Backslash is the default LIKE escape character in PostgreSQL
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,198 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.Notification;
+import com.jewelcca.entity.Product;
+import com.jewelcca.event.ProductChangeEvent;
+import com.jewelcca.repository.ProductRepository;
+import com.jewelcca.repository.WishlistItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Price-drop and back-in-stock alerts for wishlisted products. Product changes are only recorded
+ * in memory when their transaction commits, so the admin request never touches the wishers. Once
+ * per window the recorded changes are fanned out: the wishers of each product are read in keyset
+ * pages, all changes for one user are folded into a single notification, and the notifications
+ * are inserted in JDBC batches.
+ */
+@Service
+public class WishlistAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(WishlistAlertService.class);
+
+    private static final String INSERT_NOTIFICATION_SQL =
+            "INSERT INTO notifications (user_id, type, title, message, product_id, is_read, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, false, ?)";
+
+    private static final int MAX_NAMES_IN_MESSAGE = 3;
+
+    @Value("${notifications.wishlist-alerts.page-size}")
+    private int pageSize;
+
+    @Value("${notifications.wishlist-alerts.batch-size}")
+    private int batchSize;
+
+    @Autowired
+    private WishlistItemRepository wishlistItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Changes recorded since the last flush, one per product and change type
+    private final Map<String, ProductChangeEvent> pendingChanges = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        pendingChanges.merge(event.getProductId() + ":" + event.getType(), event, WishlistAlertService::coalesce);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.wishlist-alerts.window-ms}")
+    public void flushPendingAlerts() {
+        List<ProductChangeEvent> changes = new ArrayList<>();
+        for (String key : new ArrayList<>(pendingChanges.keySet())) {
+            ProductChangeEvent change = pendingChanges.remove(key);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Long, Product> products = productRepository.findAllById(
+                            changes.stream().map(ProductChangeEvent::getProductId).collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(Product::getId, product -> product));
+            Map<Long, String> productNames = products.values().stream()
+                    .collect(Collectors.toMap(Product::getId, Product::getName));
+
+            Map<Long, List<ProductChangeEvent>> changesByUser = new HashMap<>();
+            for (ProductChangeEvent change : changes) {
+                ProductChangeEvent current = againstCurrentState(change, products.get(change.getProductId()));
+                if (current != null) {
+                    collectWishers(current, changesByUser);
+                }
+            }
+
+            int created = insertNotifications(changesByUser, productNames);
+            log.info("Created {} wishlist notifications for {} product changes", created, changes.size());
+        } catch (RuntimeException e) {
+            log.error("Wishlist alert fan-out failed for {} product changes", changes.size(), e);
+        }
+    }
+
+    /**
+     * Only rises and sell-outs after a recorded change go unpublished, so a change is checked
+     * against the product as it is now: a drop is reported at the current price and only while
+     * that is still below the price before the first drop, a restock only while still in stock.
+     */
+    private static ProductChangeEvent againstCurrentState(ProductChangeEvent change, Product product) {
+        if (product == null) {
+            return null;
+        }
+        if (change.getType() == ProductChangeEvent.ChangeType.BACK_IN_STOCK) {
+            return product.isInStock() ? change : null;
+        }
+        if (product.getPrice() == null || product.getPrice().compareTo(change.getOldPrice()) >= 0) {
+            return null;
+        }
+        return new ProductChangeEvent(change.getProductId(), change.getType(), change.getOldPrice(), product.getPrice());
+    }
+
+    private void collectWishers(ProductChangeEvent change, Map<Long, List<ProductChangeEvent>> changesByUser) {
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            page = wishlistItemRepository.findUserIdsByProductIdAfter(change.getProductId(), afterId,
+                    PageRequest.of(0, pageSize));
+            for (Object[] row : page) {
+                changesByUser.computeIfAbsent((Long) row[1], key -> new ArrayList<>()).add(change);
+            }
+            if (!page.isEmpty()) {
+                afterId = (Long) page.get(page.size() - 1)[0];
+            }
+        } while (page.size() == pageSize);
+    }
+
+    private int insertNotifications(Map<Long, List<ProductChangeEvent>> changesByUser, Map<Long, String> productNames) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Notification> batch = new ArrayList<>(batchSize);
+        int created = 0;
+
+        for (Map.Entry<Long, List<ProductChangeEvent>> entry : changesByUser.entrySet()) {
+            batch.add(buildNotification(entry.getKey(), entry.getValue(), productNames));
+            if (batch.size() == batchSize) {
+                created += insertBatch(batch, now);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            created += insertBatch(batch, now);
+        }
+        return created;
+    }
+
+    private int insertBatch(List<Notification> notifications, Timestamp createdAt) {
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION_SQL, notifications, notifications.size(), (ps, notification) -> {
+            ps.setLong(1, notification.getUserId());
+            ps.setString(2, notification.getType().name());
+            ps.setString(3, notification.getTitle());
+            ps.setString(4, notification.getMessage());
+            if (notification.getProductId() != null) {
+                ps.setLong(5, notification.getProductId());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            ps.setTimestamp(6, createdAt);
+        });
+        return notifications.size();
+    }
+
+    private Notification buildNotification(Long userId, List<ProductChangeEvent> changes, Map<Long, String> productNames) {
+        if (changes.size() == 1) {
+            ProductChangeEvent change = changes.get(0);
+            String name = productNames.get(change.getProductId());
+            if (change.getType() == ProductChangeEvent.ChangeType.PRICE_DROP) {
+                return new Notification(userId, Notification.NotificationType.PRICE_DROP, "Price drop on " + name,
+                        name + " is now ₹" + change.getNewPrice() + " (was ₹" + change.getOldPrice() + ")",
+                        change.getProductId());
+            }
+            return new Notification(userId, Notification.NotificationType.BACK_IN_STOCK, name + " is back in stock",
+                    name + " from your wishlist is available again", change.getProductId());
+        }
+
+        List<String> names = changes.stream()
+                .map(change -> productNames.get(change.getProductId()))
+                .distinct()
+                .collect(Collectors.toList());
+        String listed = String.join(", ", names.subList(0, Math.min(names.size(), MAX_NAMES_IN_MESSAGE)));
+        if (names.size() > MAX_NAMES_IN_MESSAGE) {
+            listed += " and " + (names.size() - MAX_NAMES_IN_MESSAGE) + " more";
+        }
+        return new Notification(userId, Notification.NotificationType.WISHLIST_UPDATES, "Updates on your wishlist",
+                "Price drops and restocks on " + listed, null);
+    }
+
+    private static ProductChangeEvent coalesce(ProductChangeEvent earlier, ProductChangeEvent later) {
+        // Keep the price from before the first change so the drop is reported against it
+        return new ProductChangeEvent(later.getProductId(), later.getType(), earlier.getOldPrice(), later.getNewPrice());
+    }
+}
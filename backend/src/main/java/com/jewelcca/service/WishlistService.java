@@ -9,8 +9,16 @@ import com.jewelcca.repository.WishlistItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class WishlistService {
@@ -24,6 +32,21 @@ public class WishlistService {
     @Autowired
     private UserRepository userRepository;
 
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    // Wishlisted product ids per recently active user, least recently used evicted first
+    private final Map<Long, Set<Long>> productIdsByUser = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Set<Long>> eldest) {
+                    return size() > MAX_CACHED_USERS;
+                }
+            });
+
+    // Token per user whose wishlist is being loaded; a committed change removes it, so a load that
+    // raced the change is not cached. Guarded by productIdsByUser together with the cache itself.
+    private final Map<Long, Object> loadsInFlight = new HashMap<>();
+
     public List<WishlistItem> getWishlistItems(Long userId) {
         return wishlistItemRepository.findByUserId(userId);
     }
@@ -40,15 +63,74 @@ public class WishlistService {
         }
 
         WishlistItem wishlistItem = new WishlistItem(user, product);
-        return wishlistItemRepository.save(wishlistItem);
+        wishlistItem = wishlistItemRepository.save(wishlistItem);
+        evictAfterCommit(userId);
+        return wishlistItem;
     }
 
     @Transactional
     public void removeFromWishlist(Long userId, Long productId) {
         wishlistItemRepository.deleteByUserIdAndProductId(userId, productId);
+        evictAfterCommit(userId);
     }
 
     public boolean isInWishlist(Long userId, Long productId) {
-        return wishlistItemRepository.existsByUserIdAndProductId(userId, productId);
+        return getWishlistProductIds(userId).contains(productId);
+    }
+
+    public Map<Long, Boolean> containsProducts(Long userId, Collection<Long> productIds) {
+        Set<Long> wishlisted = getWishlistProductIds(userId);
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            result.put(productId, wishlisted.contains(productId));
+        }
+        return result;
+    }
+
+    private Set<Long> getWishlistProductIds(Long userId) {
+        Set<Long> cached = productIdsByUser.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Object token = new Object();
+        synchronized (productIdsByUser) {
+            loadsInFlight.put(userId, token);
+        }
+        Set<Long> loaded;
+        try {
+            loaded = Set.copyOf(wishlistItemRepository.findProductIdsByUserId(userId));
+        } catch (RuntimeException e) {
+            synchronized (productIdsByUser) {
+                loadsInFlight.remove(userId, token);
+            }
+            throw e;
+        }
+        synchronized (productIdsByUser) {
+            if (loadsInFlight.remove(userId, token)) {
+                productIdsByUser.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private void evictAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    private void evict(Long userId) {
+        synchronized (productIdsByUser) {
+            loadsInFlight.remove(userId);
+            productIdsByUser.remove(userId);
+        }
     }
 }
\ No newline at end of file
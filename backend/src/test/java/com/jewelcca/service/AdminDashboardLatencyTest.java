@@ -0,0 +1,158 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.Order;
+import com.jewelcca.repository.CategoryRepository;
+import com.jewelcca.repository.OrderRepository;
+import com.jewelcca.repository.ProductRepository;
+import com.jewelcca.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latency benchmark for the concurrent dashboard stats. Each repository call is stubbed with a
+ * fixed delay, so the measured time shows the fan-out itself: the response should take about as
+ * long as the slowest query, and well under half the sum of all of them. The stats are requested
+ * through the analytics cache, which is emptied after every run so each one computes afresh.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdminDashboardLatencyTest {
+
+    private static final long QUERY_MS = 100;
+    private static final long SLOWEST_QUERY_MS = 300;
+    private static final long SEQUENTIAL_MS = 9 * QUERY_MS + SLOWEST_QUERY_MS;
+    private static final int RUNS = 5;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AdminService adminService;
+
+    private AnalyticsCache analyticsCache;
+
+    // Read by the revenue stub on each call, so a test can make that one query hang
+    private volatile long revenueQueryMs = SLOWEST_QUERY_MS;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(10);
+        executor.setMaxPoolSize(10);
+        executor.initialize();
+
+        analyticsCache = new AnalyticsCache();
+        ReflectionTestUtils.setField(analyticsCache, "softTtlSeconds", 300L);
+        ReflectionTestUtils.setField(analyticsCache, "hardTtlSeconds", 600L);
+        ReflectionTestUtils.setField(analyticsCache, "analyticsExecutor", executor);
+
+        ReflectionTestUtils.setField(adminService, "analyticsCache", analyticsCache);
+        ReflectionTestUtils.setField(adminService, "dashboardExecutor", executor);
+        ReflectionTestUtils.setField(adminService, "dashboardQueryTimeoutMs", 3000L);
+        ReflectionTestUtils.setField(adminService, "defaultLowStockThreshold", 10);
+        adminService.setTransactionManager(transactionManager);
+
+        when(userRepository.count()).then(delayed(QUERY_MS, 120L));
+        when(orderRepository.count()).then(delayed(QUERY_MS, 900L));
+        when(productRepository.count()).then(delayed(QUERY_MS, 40L));
+        when(categoryRepository.count()).then(delayed(QUERY_MS, 6L));
+        when(orderRepository.sumTotalAmountByStatus(Order.OrderStatus.DELIVERED)).then(invocation -> {
+            Thread.sleep(revenueQueryMs);
+            return new BigDecimal("125000.00");
+        });
+        when(orderRepository.countByCreatedAtGreaterThanEqual(any())).then(delayed(QUERY_MS, 110L));
+        when(orderRepository.sumTotalAmountByStatusAndCreatedAtFrom(eq(Order.OrderStatus.DELIVERED), any()))
+                .then(delayed(QUERY_MS, new BigDecimal("9000.00")));
+        when(orderRepository.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(any(), any()))
+                .then(delayed(QUERY_MS, 100L));
+        when(categoryRepository.findMaxLowStockThreshold()).thenReturn(10);
+        when(productRepository.countLowStock(10, 10)).then(delayed(QUERY_MS, 3L));
+        when(orderRepository.countByStatus(Order.OrderStatus.PENDING)).then(delayed(QUERY_MS, 12L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void latencyIsCloseToTheSlowestQuery() {
+        requestDashboardStats(); // warm up the pool threads
+
+        long[] timings = new long[RUNS];
+        Map<String, Object> stats = null;
+        for (int run = 0; run < RUNS; run++) {
+            long started = System.nanoTime();
+            stats = requestDashboardStats();
+            timings[run] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        }
+        Arrays.sort(timings);
+        long median = timings[RUNS / 2];
+
+        assertThat(stats).containsEntry("partial", false).containsEntry("totalOrders", 900L);
+        assertThat(median).as("median of %s ms, sequential would be %d ms", Arrays.toString(timings), SEQUENTIAL_MS)
+                .isGreaterThanOrEqualTo(SLOWEST_QUERY_MS)
+                .isLessThan(SEQUENTIAL_MS / 2);
+    }
+
+    @Test
+    void slowQueryIsReportedAsTimedOutAtTheDeadline() {
+        long stuckQueryMs = 10 * SEQUENTIAL_MS;
+        revenueQueryMs = stuckQueryMs;
+        ReflectionTestUtils.setField(adminService, "dashboardQueryTimeoutMs", SLOWEST_QUERY_MS);
+
+        long started = System.nanoTime();
+        Map<String, Object> stats = requestDashboardStats();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertThat(stats).containsEntry("partial", true).doesNotContainKey("totalRevenue");
+        assertThat(stats.get("timedOut")).isEqualTo(List.of("totalRevenue"));
+        assertThat(stats).containsEntry("totalUsers", 120L);
+        assertThat(elapsed).isLessThan(stuckQueryMs / 2);
+    }
+
+    private Map<String, Object> requestDashboardStats() {
+        AnalyticsCache.Result<Map<String, Object>> result = adminService.getDashboardStats();
+        analyticsCache.invalidate("dashboard-stats", result);
+        return result.getValue();
+    }
+
+    private static Answer<Object> delayed(long millis, Object value) {
+        return invocation -> {
+            Thread.sleep(millis);
+            return value;
+        };
+    }
+}
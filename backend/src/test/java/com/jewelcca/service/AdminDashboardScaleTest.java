@@ -0,0 +1,110 @@
+package com.jewelcca.service;
+
+import com.jewelcca.PostgresIntegrationTest;
+import com.jewelcca.entity.User;
+import com.jewelcca.repository.UserRepository;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds a large order volume and checks that the dashboard, customer insights and financial
+ * summary stay aggregate queries: the same number of statements, no entities materialized, and a
+ * latency that grows far slower than the order volume. The seeded rows are removed afterwards so
+ * the other tests sharing the container are not slowed down or skewed by them.
+ */
+class AdminDashboardScaleTest extends PostgresIntegrationTest {
+
+    private static final int LARGE_VOLUME = 200_000;
+
+    // 200x the orders may cost at most 50x the time, and anything under the floor is noise
+    private static final int MAX_SLOWDOWN = 50;
+
+    private static final long LATENCY_FLOOR_MS = 5_000;
+
+    private static final String SCALE_EMAIL = "scale-customer@example.com";
+
+    private static final String SEED_ORDERS_SQL =
+            "INSERT INTO orders (order_number, user_id, total_amount, discount_amount, status, payment_method, " +
+            "payment_status, created_at, updated_at, version) " +
+            "SELECT 'SCALE-' || ? || '-' || g, ?, 100 + g % 900, 0, " +
+            "(ARRAY['PENDING', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED'])[1 + g % 5], 'UPI', 'COMPLETED', " +
+            "now() - (g % 90) * interval '1 day', now(), 0 FROM generate_series(1, ?) g";
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private AnalyticsCache analyticsCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeSeededOrders() {
+        jdbcTemplate.update("DELETE FROM orders WHERE order_number LIKE 'SCALE-%'");
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", SCALE_EMAIL);
+    }
+
+    @Test
+    void analyticsStayAggregateQueriesAsOrdersGrow() {
+        User user = userRepository.save(new User("Scale", "Customer", SCALE_EMAIL, "password"));
+
+        jdbcTemplate.update(SEED_ORDERS_SQL, "small", user.getId(), 1_000);
+        // Warm up the connection pool, statement caches and JIT before anything is timed
+        measure();
+        Measurement small = measure();
+
+        jdbcTemplate.update(SEED_ORDERS_SQL, "large", user.getId(), LARGE_VOLUME);
+        Measurement large = measure();
+
+        assertThat((Long) large.dashboard.get("totalOrders") - (Long) small.dashboard.get("totalOrders"))
+                .isEqualTo(LARGE_VOLUME);
+        assertThat(large.dashboard.get("partial")).isEqualTo(false);
+        assertThat(large.statements).isEqualTo(small.statements);
+        assertThat(large.entitiesLoaded).isZero();
+        assertThat(large.millis).isLessThanOrEqualTo(Math.max(MAX_SLOWDOWN * small.millis, LATENCY_FLOOR_MS));
+    }
+
+    private Measurement measure() {
+        Statistics statistics = statistics();
+        statistics.clear();
+        long started = System.nanoTime();
+
+        AnalyticsCache.Result<Map<String, Object>> dashboard = adminService.getDashboardStats();
+        AnalyticsCache.Result<Map<String, Object>> insights = adminService.getCustomerInsights();
+        adminService.getFinancialSummary(LocalDateTime.now().minusDays(90), LocalDateTime.now());
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        // The next measurement must compute again rather than read the cache
+        analyticsCache.invalidate("dashboard-stats", dashboard);
+        analyticsCache.invalidate("customer-insights", insights);
+        return new Measurement(dashboard.getValue(), statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(), millis);
+    }
+
+    private static final class Measurement {
+        private final Map<String, Object> dashboard;
+        private final long statements;
+        private final long entitiesLoaded;
+        private final long millis;
+
+        private Measurement(Map<String, Object> dashboard, long statements, long entitiesLoaded, long millis) {
+            this.dashboard = dashboard;
+            this.statements = statements;
+            this.entitiesLoaded = entitiesLoaded;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.jewelcca.service;
+
+import com.jewelcca.PostgresIntegrationTest;
+import com.jewelcca.entity.Offer;
+import com.jewelcca.entity.OfferRedemptionShard;
+import com.jewelcca.repository.OfferRedemptionShardRepository;
+import com.jewelcca.repository.OfferRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads redeem the same coupon at once; the caps must hold exactly, with no lost updates
+ * and no redemptions beyond the limit.
+ */
+class OfferRedemptionConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 32;
+
+    @Value("${offers.redemption-shards}")
+    private int shardCount;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private OfferRedemptionService offerRedemptionService;
+
+    @Autowired
+    private OfferRedemptionShardRepository shardRepository;
+
+    @Test
+    void concurrentFirstProvisioningCreatesOneSetOfShards() throws Exception {
+        Offer offer = cappedOffer("PROVISION50", 50, null);
+
+        List<Throwable> failures = runConcurrently(THREADS, i -> offerRedemptionService.provision(offer));
+
+        assertThat(failures).isEmpty();
+        List<OfferRedemptionShard> shards = shardsOf(offer);
+        assertThat(shards).hasSize(shardCount);
+        assertThat(shards.stream().mapToInt(OfferRedemptionShard::getCapacity).sum()).isEqualTo(50);
+    }
+
+    @Test
+    void globalCapIsNeverExceeded() throws Exception {
+        Offer offer = cappedOffer("STRESS50", 50, null);
+        offerRedemptionService.provision(offer);
+        AtomicInteger redeemed = new AtomicInteger();
+
+        List<Throwable> failures = runConcurrently(400, i -> {
+            offerRedemptionService.redeem(offer, 10_000L + i);
+            redeemed.incrementAndGet();
+        });
+
+        assertThat(redeemed.get()).isEqualTo(50);
+        assertThat(failures).hasSize(350)
+                .allSatisfy(failure -> assertThat(failure).hasMessage("This coupon has reached its usage limit"));
+        assertThat(shardRepository.sumUsedByOfferId(offer.getId())).isEqualTo(50);
+    }
+
+    @Test
+    void perUserCapHoldsForOneUserRedeemingConcurrently() throws Exception {
+        Offer offer = cappedOffer("PERUSER2", 1000, 2);
+        offerRedemptionService.provision(offer);
+        AtomicInteger redeemed = new AtomicInteger();
+
+        List<Throwable> failures = runConcurrently(100, i -> {
+            offerRedemptionService.redeem(offer, 42L);
+            redeemed.incrementAndGet();
+        });
+
+        assertThat(redeemed.get()).isEqualTo(2);
+        assertThat(failures).hasSize(98);
+        assertThat(shardRepository.sumUsedByOfferId(offer.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void releasedRedemptionsCanBeTakenAgain() throws Exception {
+        Offer offer = cappedOffer("RELEASE10", 10, null);
+        offerRedemptionService.provision(offer);
+        Integer[] shards = new Integer[10];
+        runConcurrently(10, i -> shards[i] = offerRedemptionService.redeem(offer, 20_000L + i));
+
+        runConcurrently(10, i -> offerRedemptionService.release(offer.getId(), shards[i], 20_000L + i));
+        AtomicInteger redeemed = new AtomicInteger();
+        runConcurrently(40, i -> {
+            offerRedemptionService.redeem(offer, 30_000L + i);
+            redeemed.incrementAndGet();
+        });
+
+        assertThat(redeemed.get()).isEqualTo(10);
+        assertThat(shardRepository.sumUsedByOfferId(offer.getId())).isEqualTo(10);
+    }
+
+    @Test
+    void capsAreEnforcedWhenTheCallersCopyOfTheOfferIsStale() throws Exception {
+        Offer offer = cappedOffer("STALE5", 5, 1);
+        offerRedemptionService.provision(offer);
+        // Another node's snapshot from before the caps were set
+        Offer stale = new Offer(offer.getTitle(), offer.getDescription(), offer.getDiscountPercentage(), offer.getCode());
+        stale.setId(offer.getId());
+        AtomicInteger redeemed = new AtomicInteger();
+
+        List<Throwable> failures = runConcurrently(20, i -> {
+            offerRedemptionService.redeem(stale, 40_000L + i % 10);
+            redeemed.incrementAndGet();
+        });
+
+        assertThat(redeemed.get()).isEqualTo(5);
+        assertThat(failures).hasSize(15);
+        assertThat(shardRepository.sumUsedByOfferId(offer.getId())).isEqualTo(5);
+    }
+
+    private Offer cappedOffer(String code, Integer maxRedemptions, Integer maxRedemptionsPerUser) {
+        Offer offer = new Offer("Stress " + code, "Concurrency test", new BigDecimal("10.00"), code);
+        offer.setMaxRedemptions(maxRedemptions);
+        offer.setMaxRedemptionsPerUser(maxRedemptionsPerUser);
+        return offerRepository.save(offer);
+    }
+
+    private List<OfferRedemptionShard> shardsOf(Offer offer) {
+        return shardRepository.findAll().stream()
+                .filter(shard -> shard.getOfferId().equals(offer.getId()))
+                .toList();
+    }
+
+    // Runs the tasks on a fixed pool, released together, and returns what they threw
+    private static List<Throwable> runConcurrently(int tasks, IndexedTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        try {
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(60, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private interface IndexedTask {
+        void run(int index) throws Exception;
+    }
+}
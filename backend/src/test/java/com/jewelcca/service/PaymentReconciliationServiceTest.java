@@ -0,0 +1,124 @@
+package com.jewelcca.service;
+
+import com.jewelcca.entity.Order;
+import com.jewelcca.exception.PaymentGatewayException;
+import com.jewelcca.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the reconciliation job against a stub gateway and checks what it writes for each outcome.
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationServiceTest {
+
+    private static final String JOB_NAME = "payment-reconciliation";
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private RazorpayGateway razorpayGateway;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PaymentReconciliationService reconciliationService;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+
+        ReflectionTestUtils.setField(reconciliationService, "chunkSize", 10);
+        ReflectionTestUtils.setField(reconciliationService, "graceMinutes", 15L);
+        ReflectionTestUtils.setField(reconciliationService, "abandonAfterHours", 48L);
+        ReflectionTestUtils.setField(reconciliationService, "leaseMinutes", 5L);
+        ReflectionTestUtils.setField(reconciliationService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(reconciliationService, "reconciliationExecutor", executor);
+
+        when(jobLeaseService.tryAcquire(eq(JOB_NAME), any(Duration.class))).thenReturn(true);
+        when(jobLeaseService.getCheckpoint(JOB_NAME)).thenReturn(0L);
+        when(jobLeaseService.checkpoint(eq(JOB_NAME), anyLong(), any(Duration.class))).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void confirmsPaidOrdersAndCancelsAbandonedOnes() {
+        LocalDateTime recent = LocalDateTime.now().minusHours(1);
+        LocalDateTime abandoned = LocalDateTime.now().minusDays(3);
+        stubPendingPayments(List.of(
+                new Object[]{1L, "order_paid", recent},
+                new Object[]{2L, "order_attempted", abandoned},
+                new Object[]{3L, null, abandoned},
+                new Object[]{4L, "order_created", recent}));
+        when(razorpayGateway.fetchOrder("order_paid")).thenReturn(Map.of("status", "paid"));
+        when(razorpayGateway.fetchOrder("order_attempted")).thenReturn(Map.of("status", "attempted"));
+        when(razorpayGateway.fetchOrder("order_created")).thenReturn(Map.of("status", "created"));
+
+        reconciliationService.reconcilePendingPayments();
+
+        verify(orderRepository).updatePaymentStatusByIdIn(eq(List.of(1L)), eq(Order.PaymentStatus.PENDING),
+                eq(Order.PaymentStatus.COMPLETED), any(LocalDateTime.class));
+        verify(orderService).applyTransition(List.of(1L), Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, JOB_NAME);
+        verify(orderRepository).updatePaymentStatusByIdIn(eq(List.of(2L, 3L)), eq(Order.PaymentStatus.PENDING),
+                eq(Order.PaymentStatus.FAILED), any(LocalDateTime.class));
+        verify(orderService).applyTransition(List.of(2L, 3L), Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED, JOB_NAME);
+        verifyNoMoreInteractions(orderService);
+
+        verify(jobLeaseService).checkpoint(eq(JOB_NAME), eq(4L), any(Duration.class));
+        verify(jobLeaseService).checkpoint(eq(JOB_NAME), eq(0L), any(Duration.class));
+        verify(jobLeaseService).release(JOB_NAME);
+    }
+
+    @Test
+    void leavesOrdersPendingWhileTheGatewayIsFailing() {
+        LocalDateTime abandoned = LocalDateTime.now().minusDays(3);
+        stubPendingPayments(List.<Object[]>of(new Object[]{7L, "order_unknown", abandoned}));
+        when(razorpayGateway.fetchOrder("order_unknown"))
+                .thenThrow(new PaymentGatewayException("Payment gateway is temporarily unavailable"));
+
+        reconciliationService.reconcilePendingPayments();
+
+        verify(orderRepository, never()).updatePaymentStatusByIdIn(any(), any(), any(), any());
+        verifyNoInteractions(orderService);
+        verify(jobLeaseService).release(JOB_NAME);
+    }
+
+    private void stubPendingPayments(List<Object[]> chunk) {
+        when(orderRepository.findPaymentsToReconcile(eq(Order.PaymentStatus.PENDING), eq(Order.PaymentMethod.COD),
+                anyLong(), any(LocalDateTime.class), any()))
+                .thenReturn(chunk, List.of());
+    }
+}
@@ -0,0 +1,80 @@
+package com.jewelcca.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewelcca.PostgresIntegrationTest;
+import com.jewelcca.entity.Category;
+import com.jewelcca.entity.Product;
+import com.jewelcca.entity.User;
+import com.jewelcca.repository.CategoryRepository;
+import com.jewelcca.repository.ProductRepository;
+import com.jewelcca.repository.UserRepository;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductDetailQueryCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void detailQueryCountDoesNotGrowWithReviews() {
+        Category category = categoryRepository.save(new Category("Detail Rings", "detail-rings", "Rings", null));
+        Product product = productRepository.save(new Product("Solitaire", "Gold ring", new BigDecimal("499.00"), category));
+
+        addReviews(product.getId(), 0, 1);
+        long withOneReview = countDetailStatements(product.getId());
+
+        addReviews(product.getId(), 1, 40);
+        long withManyReviews = countDetailStatements(product.getId());
+
+        assertThat(withOneReview).isPositive();
+        assertThat(withManyReviews).isEqualTo(withOneReview);
+    }
+
+    private void addReviews(Long productId, int from, int to) {
+        for (int i = from; i < to; i++) {
+            User user = userRepository.save(new User("Reviewer", "No" + i, "detail-reviewer" + i + "@example.com", "password"));
+            reviewService.addReview(productId, user.getId(), 1 + i % 5, "Review " + i);
+        }
+    }
+
+    // Loads and serializes the response in one session, as the controller does with open-in-view
+    private long countDetailStatements(Long productId) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        String json = transactionTemplate.execute(status -> {
+            try {
+                return objectMapper.writeValueAsString(productService.getProductDetail(productId));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(json).contains("\"ratingSummary\"").contains("\"reviews\"");
+        return statistics.getPrepareStatementCount();
+    }
+}
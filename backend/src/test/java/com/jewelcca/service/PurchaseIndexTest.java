@@ -0,0 +1,46 @@
+package com.jewelcca.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PurchaseIndexTest {
+
+    @Test
+    void recordsUnsortedProductsForANewBuyer() {
+        PurchaseIndex index = new PurchaseIndex();
+
+        index.record(List.of(
+                new Object[]{7L, 42L},
+                new Object[]{7L, 3L},
+                new Object[]{7L, 19L},
+                new Object[]{7L, 3L},
+                new Object[]{7L, 88L},
+                new Object[]{7L, 1L}));
+
+        for (long productId : new long[]{1L, 3L, 19L, 42L, 88L}) {
+            assertThat(index.hasPurchased(7L, productId)).as("product %d", productId).isTrue();
+        }
+        assertThat(index.hasPurchased(7L, 2L)).isFalse();
+        assertThat(index.hasPurchased(8L, 42L)).isFalse();
+    }
+
+    @Test
+    void mergesNewPurchasesIntoAnExistingBuyer() {
+        PurchaseIndex index = new PurchaseIndex();
+        index.rebuild(Stream.of(new Object[]{5L, 30L}, new Object[]{5L, 10L}, new Object[]{6L, 20L}));
+
+        index.record(List.of(new Object[]{5L, 25L}, new Object[]{5L, 5L}, new Object[]{6L, 1L}));
+
+        for (long productId : new long[]{5L, 10L, 25L, 30L}) {
+            assertThat(index.hasPurchased(5L, productId)).as("product %d", productId).isTrue();
+        }
+        assertThat(index.hasPurchased(6L, 1L)).isTrue();
+        assertThat(index.hasPurchased(6L, 20L)).isTrue();
+        assertThat(index.hasPurchased(5L, 20L)).isFalse();
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
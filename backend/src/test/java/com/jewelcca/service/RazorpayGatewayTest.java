@@ -0,0 +1,170 @@
+package com.jewelcca.service;
+
+import com.jewelcca.exception.PaymentGatewayException;
+import com.jewelcca.util.CircuitBreaker;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the gateway against a local stub HTTP server to check the read timeout, the bulkhead and
+ * the circuit breaker without calling Razorpay.
+ */
+class RazorpayGatewayTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile StubResponse stub = exchange -> respond(exchange, 200, "{\"id\":\"order_1\",\"status\":\"created\"}");
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                stub.handle(exchange);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void returnsTheGatewayResponse() {
+        RazorpayGateway gateway = gateway(4, 5, 1000);
+
+        Map<String, Object> order = gateway.fetchOrder("order_1");
+
+        assertThat(order).containsEntry("id", "order_1").containsEntry("status", "created");
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void slowResponseFailsAfterTheReadTimeout() {
+        stub = exchange -> {
+            Thread.sleep(3000);
+            respond(exchange, 200, "{}");
+        };
+        RazorpayGateway gateway = gateway(4, 5, 200);
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> gateway.fetchOrder("order_1"))
+                .isInstanceOf(PaymentGatewayException.class)
+                .hasMessage("Payment gateway call failed");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(2000);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimit() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        stub = exchange -> {
+            received.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            respond(exchange, 200, "{}");
+        };
+        RazorpayGateway gateway = gateway(1, 5, 5000);
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<Map<String, Object>> inFlight = caller.submit(() -> gateway.fetchOrder("order_1"));
+            assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> gateway.fetchOrder("order_2"))
+                    .isInstanceOf(PaymentGatewayException.class)
+                    .hasMessage("Payment gateway is busy, please try again");
+            assertThat(requests.get()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(inFlight.get(5, TimeUnit.SECONDS)).isEmpty();
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    void breakerOpensAfterConsecutiveServerErrors() {
+        stub = exchange -> respond(exchange, 503, "{\"error\":\"unavailable\"}");
+        RazorpayGateway gateway = gateway(4, 2, 1000);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> gateway.fetchOrder("order_1"))
+                    .isInstanceOf(PaymentGatewayException.class)
+                    .hasMessage("Payment gateway returned 503");
+        }
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> gateway.fetchOrder("order_1"))
+                .isInstanceOf(PaymentGatewayException.class)
+                .hasMessage("Payment gateway is temporarily unavailable");
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheBreaker() {
+        stub = exchange -> respond(exchange, 400, "{\"error\":\"bad request\"}");
+        RazorpayGateway gateway = gateway(4, 2, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> gateway.fetchOrder("order_1"))
+                    .isInstanceOf(PaymentGatewayException.class)
+                    .hasMessage("Payment gateway returned 400");
+        }
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    private RazorpayGateway gateway(int maxConcurrentCalls, int failureThreshold, long readTimeoutMs) {
+        RazorpayGateway gateway = new RazorpayGateway();
+        ReflectionTestUtils.setField(gateway, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(gateway, "razorpayKeyId", "key");
+        ReflectionTestUtils.setField(gateway, "razorpayKeySecret", "secret");
+        ReflectionTestUtils.setField(gateway, "connectTimeoutMs", 500);
+        ReflectionTestUtils.setField(gateway, "readTimeoutMs", readTimeoutMs);
+        ReflectionTestUtils.setField(gateway, "maxConcurrentCalls", maxConcurrentCalls);
+        ReflectionTestUtils.setField(gateway, "bulkheadWaitMs", 50L);
+        ReflectionTestUtils.setField(gateway, "failureThreshold", failureThreshold);
+        ReflectionTestUtils.setField(gateway, "openDurationMs", 60_000L);
+        ReflectionTestUtils.setField(gateway, "webClientBuilder", WebClient.builder());
+        gateway.init();
+        return gateway;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private interface StubResponse {
+        void handle(HttpExchange exchange) throws IOException, InterruptedException;
+    }
+}
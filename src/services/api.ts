@@ -99,6 +99,7 @@ export const wishlistAPI = {
   addItem: (productId: number) => api.post(`/wishlist/add/${productId}`),
   removeItem: (productId: number) => api.delete(`/wishlist/remove/${productId}`),
   checkItem: (productId: number) => api.get(`/wishlist/check/${productId}`),
+  contains: (productIds: number[]) => api.post('/wishlist/contains', { productIds }),
 };
 
 // Orders API
@@ -113,8 +114,8 @@ export const ordersAPI = {
 
 // Reviews API
 export const reviewsAPI = {
-  getProductReviews: (productId: string, page = 0, size = 10) =>
-    api.get(`/reviews/product/${productId}?page=${page}&size=${size}`),
+  getProductReviews: (productId: string, page = 0, size = 10, sort: 'newest' | 'rating' = 'newest') =>
+    api.get(`/reviews/product/${productId}?page=${page}&size=${size}&sort=${sort}`),
   addReview: (productId: string, rating: number, comment: string) =>
     api.post(`/reviews/product/${productId}`, { rating, comment }),
   updateReview: (reviewId: string, rating: number, comment: string) =>
@@ -127,6 +128,7 @@ export const offersAPI = {
   getAll: () => api.get('/offers'),
   getById: (id: string) => api.get(`/offers/${id}`),
   getByCode: (code: string) => api.get(`/offers/code/${code}`),
+  apply: (code?: string) => api.post('/offers/apply', { code }),
   create: (offer: any) => api.post('/offers', offer),
   update: (id: string, offer: any) => api.put(`/offers/${id}`, offer),
   delete: (id: string) => api.delete(`/offers/${id}`),
@@ -151,6 +153,11 @@ export const paymentAPI = {
 // Events API
 export const eventsAPI = {
   getAll: () => api.get('/events'),
+  getUpcoming: (afterDate?: string, afterId?: number, size = 20) =>
+    api.get('/events/upcoming', { params: { afterDate, afterId, size } }),
+  getPast: (beforeDate?: string, beforeId?: number, size = 20) =>
+    api.get('/events/past', { params: { beforeDate, beforeId, size } }),
+  calendarUrl: `${API_BASE_URL}/events/calendar.ics`,
   getById: (id: string) => api.get(`/events/${id}`),
   create: (event: any) => api.post('/events', event),
   update: (id: string, event: any) => api.put(`/events/${id}`, event),
@@ -179,6 +186,7 @@ export const adminAPI = {
   
   // User Management
   getAllUsers: (page = 0, size = 20) => api.get(`/admin/users?page=${page}&size=${size}`),
+  // Returns a slice: content plus `last`, without totalElements/totalPages
   searchUsers: (keyword: string, page = 0, size = 20) => 
     api.get(`/admin/users/search?keyword=${keyword}&page=${page}&size=${size}`),
   updateUserStatus: (id: number, enabled: boolean) => 
@@ -192,16 +200,91 @@ export const adminAPI = {
     api.get(`/admin/orders/search?keyword=${keyword}&page=${page}&size=${size}`),
   filterOrders: (filters: any, page = 0, size = 20) => 
     api.get(`/admin/orders/filter`, { params: { ...filters, page, size } }),
+  filterOrdersFeed: (filters: any, beforeDate?: string, beforeId?: number, size = 50) =>
+    api.get('/admin/orders/filter/feed', { params: { ...filters, beforeDate, beforeId, size } }),
   
   // Product Management
   getAllProducts: (page = 0, size = 20) => api.get(`/admin/products?page=${page}&size=${size}`),
-  getLowStockProducts: () => api.get('/admin/products/low-stock'),
+  getLowStockProducts: (page = 0, size = 20) => api.get(`/admin/products/low-stock?page=${page}&size=${size}`),
   updateProductStock: (id: number, stock: number) => 
     api.put(`/admin/products/${id}/stock`, { stock }),
   
+  // Exports (format: 'csv' | 'ndjson')
+  exportOrders: (format = 'csv', startDate?: string, endDate?: string) =>
+    api.get('/admin/export/orders', { params: { format, startDate, endDate }, responseType: 'blob' }),
+  exportUsers: (format = 'csv') =>
+    api.get('/admin/export/users', { params: { format }, responseType: 'blob' }),
+  exportProducts: (format = 'csv') =>
+    api.get('/admin/export/products', { params: { format }, responseType: 'blob' }),
+
+  // Live activity (ORDER_CREATED, ORDER_STATUS_CHANGED, LOW_STOCK). EventSource can't send the
+  // Authorization header, so the stream is read with fetch; abort the signal to disconnect.
+  // Dropped connections are retried with backoff, and since events sent while disconnected are
+  // lost, recent orders and low stock are refetched and handed to onResync after each reconnect.
+  streamEvents: async (
+    onEvent: (type: string, data: any) => void,
+    signal: AbortSignal,
+    onResync?: (recentOrders: any, lowStock: any) => void,
+  ) => {
+    let delay = 1000;
+    let reconnecting = false;
+    while (!signal.aborted) {
+      let response: Response | undefined;
+      try {
+        response = await fetch(`${API_BASE_URL}/admin/events/stream`, {
+          headers: { Authorization: `Bearer ${localStorage.getItem('jewelcca_token')}`, Accept: 'text/event-stream' },
+          signal,
+        });
+      } catch {
+        if (signal.aborted) return;
+      }
+      // Retrying won't help with a token the server rejects
+      if (response && (response.status === 401 || response.status === 403)) {
+        throw new Error(`Event stream rejected with status ${response.status}`);
+      }
+      if (response?.ok && response.body) {
+        delay = 1000;
+        try {
+          if (reconnecting && onResync) {
+            const [recentOrders, lowStock] = await Promise.all([
+              adminAPI.getRecentOrders(),
+              adminAPI.getLowStockProducts(),
+            ]);
+            onResync(recentOrders.data, lowStock.data);
+          }
+          const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+          let buffer = '';
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += value;
+            let end;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+              const lines = buffer.slice(0, end).split('\n');
+              buffer = buffer.slice(end + 2);
+              const type = lines.find((line) => line.startsWith('event:'))?.slice(6).trim();
+              const data = lines.filter((line) => line.startsWith('data:')).map((line) => line.slice(5)).join('\n');
+              if (type && data) onEvent(type, JSON.parse(data));
+            }
+          }
+        } catch {
+          if (signal.aborted) return;
+        }
+      }
+      reconnecting = true;
+      await new Promise((resolve) => setTimeout(resolve, delay));
+      delay = Math.min(delay * 2, 30000);
+    }
+  },
+
   // Analytics
   getCustomerInsights: () => api.get('/admin/analytics/customer-insights'),
   getInventoryReport: () => api.get('/admin/analytics/inventory-report'),
+  getCustomerSegments: () => api.get('/admin/analytics/customers/segments'),
+  getCustomerRfm: (segment?: string, page = 0, size = 50) =>
+    api.get('/admin/analytics/customers/rfm', { params: { segment, page, size } }),
+  getCustomerCohorts: () => api.get('/admin/analytics/customers/cohorts'),
+  refreshCustomerAnalytics: () => api.post('/admin/analytics/customers/refresh'),
   getFinancialSummary: (startDate?: string, endDate?: string) =>
     api.get('/admin/analytics/financial-summary', { params: { startDate, endDate } }),
 
@@ -67,6 +67,7 @@ export interface Review {
   userName: string;
   rating: number;
   comment: string;
+  verifiedPurchase?: boolean;
   createdAt: Date;
 }
 
@@ -76,6 +77,7 @@ export interface Category {
   slug: string;
   imageUrl: string;
   description: string;
+  lowStockThreshold?: number;
   products?: Product[];
 }
 